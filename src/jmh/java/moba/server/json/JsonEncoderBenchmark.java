@@ -0,0 +1,105 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import moba.server.datatypes.enumerations.NotificationLevel;
+import moba.server.datatypes.enumerations.NotificationType;
+import moba.server.datatypes.objects.NotificationData;
+import moba.server.datatypes.objects.OutboundQueueData;
+import moba.server.json.streamwriter.JsonStreamWriterBytes;
+import moba.server.json.streamwriter.JsonStreamWriterStringBuilder;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Encoding of bean- (NotificationData) and record-types (OutboundQueueData), the latter once via StringBuilder and
+ * String.getBytes() and once straight into the byte-buffer. Run with: ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEncoderBenchmark {
+    // @formatter:off
+    private NotificationData        notification;
+    private List<OutboundQueueData> records;
+    private StringBuilder           sb;
+    private JsonStreamWriterBytes   bytes;
+    // @formatter:on
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        notification = new NotificationData(
+            NotificationLevel.WARNING,
+            NotificationType.SERVER_NOTICE,
+            "Caption",
+            "Message",
+            "JsonEncoderBenchmark"
+        );
+        records = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            records.add(new OutboundQueueData(i, 1024, i * 2, 0));
+        }
+        sb = new StringBuilder(8192);
+        bytes = new JsonStreamWriterBytes();
+    }
+
+    @Benchmark
+    public int encodeBean()
+    throws IOException, JsonException {
+        return encode(notification);
+    }
+
+    @Benchmark
+    public int encodeRecordList()
+    throws IOException, JsonException {
+        return encode(records);
+    }
+
+    @Benchmark
+    public int encodeRecordListViaString()
+    throws IOException, JsonException {
+        encode(records);
+        return sb.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public int encodeRecordListToBytes()
+    throws IOException, JsonException {
+        bytes.reset();
+        new JsonEncoder(bytes).encode(records);
+        return bytes.size();
+    }
+
+    private int encode(Object object)
+    throws IOException, JsonException {
+        sb.setLength(0);
+        new JsonEncoder(new JsonStreamWriterStringBuilder(sb)).encode(object);
+        return sb.length();
+    }
+}
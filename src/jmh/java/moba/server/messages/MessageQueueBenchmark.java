@@ -0,0 +1,89 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import moba.server.messages.messagetypes.ClientMessage;
+import moba.server.utilities.logger.MessageLogger;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Several producers (endpoints) and one consumer (message-loop). Run with: ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageQueueBenchmark {
+    // @formatter:off
+    private static final int MESSAGES  = 100_000;
+    private static final int PRODUCERS = 4;
+
+    @Param({"PRIORITY_QUEUE", "RING_BUFFER_PARK", "RING_BUFFER_YIELD", "RING_BUFFER_SPIN"})
+    public String            queueType;
+
+    private MessageQueue     queue;
+    // @formatter:on
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger logger = Logger.getLogger("benchmark");
+        logger.setLevel(java.util.logging.Level.OFF);
+        MessageLogger messageLogger = new MessageLogger(logger);
+
+        // @formatter:off
+        queue = switch(queueType) {
+            case "RING_BUFFER_PARK"  -> new RingBufferMessageQueue(messageLogger, 4096, RingBufferMessageQueue.WaitStrategy.PARK);
+            case "RING_BUFFER_YIELD" -> new RingBufferMessageQueue(messageLogger, 4096, RingBufferMessageQueue.WaitStrategy.YIELD);
+            case "RING_BUFFER_SPIN"  -> new RingBufferMessageQueue(messageLogger, 4096, RingBufferMessageQueue.WaitStrategy.SPIN);
+            default                  -> new PriorityMessageQueue(messageLogger);
+        };
+        // @formatter:on
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long multipleProducersSingleConsumer()
+    throws InterruptedException {
+        Thread[] producers = new Thread[PRODUCERS];
+        for(int i = 0; i < PRODUCERS; i++) {
+            producers[i] = Thread.ofPlatform().start(()->{
+                // enqueue() instead of add(): the message-logger would dominate the measurement
+                for(int j = 0; j < MESSAGES / PRODUCERS; j++) {
+                    queue.enqueue(new Message(ClientMessage.ECHO_REQ, null));
+                }
+            });
+        }
+
+        long sum = 0;
+        for(int i = 0; i < MESSAGES / PRODUCERS * PRODUCERS; i++) {
+            sum += queue.take().getMessageId();
+        }
+        for(Thread producer : producers) {
+            producer.join();
+        }
+        return sum;
+    }
+}
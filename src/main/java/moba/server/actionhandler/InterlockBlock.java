@@ -26,7 +26,10 @@ import moba.server.exceptions.ClientErrorException;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
 
 // TODO: Dies ist wohl eher ein Repository als ein ActionHandler.
 final public class InterlockBlock {
@@ -75,5 +78,31 @@ final public class InterlockBlock {
             }
         }
     }
-}
 
+    /**
+     * Blöcke, die von einem anderen Zug als trainId reserviert oder belegt sind
+     */
+    public Set<Long> getOccupiedBlocks(long trainId)
+    throws SQLException {
+        String q =
+            "SELECT `id` FROM `BlockSections` " +
+            "WHERE (`ReservedTrainId` IS NOT NULL AND `ReservedTrainId` <> ?) " +
+            "OR (`CurrentTrainId` IS NOT NULL AND `CurrentTrainId` <> ?)";
+
+        try(
+            Connection con = database.getConnection();
+            PreparedStatement stmt = con.prepareStatement(q)
+        ) {
+            stmt.setLong(1, trainId);
+            stmt.setLong(2, trainId);
+
+            Set<Long> blocks = new HashSet<>();
+            try(ResultSet rs = stmt.executeQuery()) {
+                while(rs.next()) {
+                    blocks.add(rs.getLong("id"));
+                }
+            }
+            return blocks;
+        }
+    }
+}
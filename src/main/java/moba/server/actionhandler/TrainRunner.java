@@ -24,7 +24,7 @@ import moba.server.datatypes.collections.SwitchStateMap;
 import moba.server.datatypes.objects.*;
 import moba.server.exceptions.ClientErrorException;
 import moba.server.repositories.SwitchStateRepository;
-import moba.server.routing.router.SimpleRouter;
+import moba.server.routing.router.RouterInterface;
 import moba.server.routing.router.routinglistitems.Block;
 import moba.server.routing.router.routinglistitems.Route;
 import moba.server.routing.router.routinglistitems.RoutingElementInterface;
@@ -40,7 +40,7 @@ import java.util.List;
 
 final public class TrainRunner {
 
-    private final SimpleRouter routing;
+    private final RouterInterface routing;
 
     private final ActionListGenerator generator;
 
@@ -62,7 +62,7 @@ final public class TrainRunner {
      *        Bahnübergänge geschaltet wurden. Bahnübergang benötigt Zeit!
      */
     public TrainRunner(
-        SimpleRouter routing,
+        RouterInterface routing,
         InterlockBlock interlock,
         InterlockRoute interlockRoute,
         SwitchStateRepository repo,
@@ -108,6 +108,7 @@ final public class TrainRunner {
     public void releaseBlock(long blockId)
     throws SQLException, ClientErrorException {
         interlockBlock.releaseBlock(blockId);
+        routing.invalidate();
         pushTrain();
     }
 
@@ -169,6 +170,8 @@ final public class TrainRunner {
                         generator.sendBlockActionList(trainJourney.train(), blocks);
                         return false;
                     }
+                    // Belegung geändert: Wege der übrigen wartenden Züge neu bestimmen
+                    routing.invalidate();
                     blocks.add(((Block)element).id());
                 }
             }
@@ -30,7 +30,10 @@ import moba.server.apiconnector.OAuth2HttpClient;
 import moba.server.apiconnector.TrainApiConnector;
 import moba.server.backgroundhandler.Acceptor;
 import moba.server.backgroundhandler.BackgroundHandlerComposite;
+import moba.server.backgroundhandler.NioAcceptor;
+import moba.server.backgroundhandler.TransportType;
 import moba.server.com.Dispatcher;
+import moba.server.com.OutboundQueue;
 import moba.server.backgroundhandler.IPC;
 import moba.server.backgroundhandler.KeepAlive;
 import moba.server.datatypes.collections.BlockContactDataMap;
@@ -39,16 +42,24 @@ import moba.server.datatypes.objects.NotificationData;
 import moba.server.messagehandler.*;
 import moba.server.repositories.*;
 import moba.server.routing.parser.LayoutParser;
-import moba.server.routing.router.SimpleRouter;
+import moba.server.routing.router.GraphRouter;
+import moba.server.routing.router.RouteCache;
+import moba.server.routing.router.RouteTable;
+import moba.server.routing.router.RouterInterface;
 import moba.server.routing.typedefs.BlockNodeMap;
 import moba.server.timedaction.FunctionExecution;
 import moba.server.timedaction.TrainRun;
 import moba.server.utilities.database.Database;
 import moba.server.datatypes.base.Version;
 import moba.server.utilities.layout.ActiveTrackLayout;
+import moba.server.utilities.layout.LayoutCache;
+import moba.server.messages.LatencyMonitor;
 import moba.server.messages.MessageLoop;
 import moba.server.messages.MessageQueue;
+import moba.server.messages.PriorityMessageQueue;
+import moba.server.messages.RingBufferMessageQueue;
 import moba.server.utilities.AllowList;
+import moba.server.utilities.ExecutionMode;
 import moba.server.utilities.config.Config;
 import moba.server.utilities.layout.TrackLayoutLock;
 import moba.server.utilities.messaging.NotificationHandler;
@@ -65,8 +76,9 @@ final public class ServerApplication {
     private final Date    buildDate;
     private final Date    startTime;
 
-    private final Config        config;
-    private final MessageQueue  msgQueueIn;
+    private final Config         config;
+    private final MessageQueue   msgQueueIn;
+    private final LatencyMonitor safetyLatency;
 
     private final Logger logger;
     // @formatter:on
@@ -79,10 +91,21 @@ final public class ServerApplication {
         this.buildDate  = date;
         this.config     = config;
         this.logger     = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
-        this.msgQueueIn = new MessageQueue(new MessageLogger(this.logger));
+        this.msgQueueIn = createMessageQueue(config, new MessageLogger(this.logger));
+
+        this.safetyLatency = new LatencyMonitor(
+            (long)config.getSection("common.serverConfig.safetyLatencySlo", 50L)
+        );
         // @formatter:on
     }
 
+    private GraphRouter.Costs getRoutingCosts() {
+        return new GraphRouter.Costs(
+            (int)(long)config.getSection("common.serverConfig.routing.bendPenalty", 2L),
+            (int)(long)config.getSection("common.serverConfig.routing.occupiedPenalty", 20L)
+        );
+    }
+
     public Version getVersion() {
         return appVer;
     }
@@ -103,6 +126,27 @@ final public class ServerApplication {
         return maxClients;
     }
 
+    public LatencyMonitor getSafetyLatency() {
+        return safetyLatency;
+    }
+
+    private static MessageQueue createMessageQueue(Config config, MessageLogger logger) {
+        String type = (String)config.getSection("common.serverConfig.messageQueue.type", "PRIORITY_QUEUE");
+
+        // @formatter:off
+        return switch(MessageQueue.QueueType.valueOf(type)) {
+            case PRIORITY_QUEUE -> new PriorityMessageQueue(logger);
+            case RING_BUFFER    -> new RingBufferMessageQueue(
+                logger,
+                (int)(long)config.getSection("common.serverConfig.messageQueue.size", 4096L),
+                RingBufferMessageQueue.WaitStrategy.valueOf(
+                    (String)config.getSection("common.serverConfig.messageQueue.waitStrategy", "PARK")
+                )
+            );
+        };
+        // @formatter:on
+    }
+
     @SuppressWarnings("unchecked")
     public void run()
     throws Exception {
@@ -112,6 +156,16 @@ final public class ServerApplication {
         var allowed = (ArrayList<String>)config.getSection("common.serverConfig.allowedIPs");
         int maxEntries = (int)(long)config.getSection("common.serverConfig.maxNotificationEntries");
         int keepAlivePingIntervall = (int)(long)config.getSection("common.serverConfig.keepAlivePingIntervall");
+        var transport = TransportType.valueOf((String)config.getSection("common.serverConfig.transport", "BLOCKING"));
+        var executionMode = ExecutionMode.valueOf((String)config.getSection("common.serverConfig.executionMode", "PLATFORM"));
+        var loopMode = MessageLoop.LoopMode.valueOf((String)config.getSection("common.serverConfig.loopMode", "SINGLE"));
+        int compressionThreshold = (int)(long)config.getSection("common.serverConfig.compressionThreshold", 4096L);
+        var outboundSettings = new OutboundQueue.Settings(
+            (int)(long)config.getSection("common.serverConfig.outboundQueueSize", 1024L),
+            OutboundQueue.OverflowPolicy.valueOf(
+                (String)config.getSection("common.serverConfig.outboundOverflowPolicy", "DROP_OLDEST")
+            )
+        );
 
         String trainApiUrl = (String)config.getSection("api.sso.url");
         String trainApiClientId = (String)config.getSection("api.sso.clientId");
@@ -119,12 +173,13 @@ final public class ServerApplication {
 
         AllowList allowList = new AllowList(maxClients, allowed);
         CircularFifoQueue<NotificationData> list = new CircularFifoQueue<>(maxEntries);
+        LayoutCache layoutCache = new LayoutCache();
         OAuth2HttpClient apiConnector = new OAuth2HttpClient(trainApiUrl, trainApiClientId, trainApiClientSecret);
 
         do {
             try(
                 Database database = new Database((HashMap<String, Object>)config.getSection("common.database"), logger);
-                Dispatcher dispatcher = new Dispatcher(new MessageLogger(logger), logger)
+                Dispatcher dispatcher = new Dispatcher(new MessageLogger(logger), logger, compressionThreshold)
             ) {
 
                 ActiveTrackLayout activeLayout = new ActiveTrackLayout(dispatcher, config);
@@ -146,14 +201,17 @@ final public class ServerApplication {
                 BlockContactDataMap blockContacts = blockListRepository.getBlockList(activeLayoutId);
                 SwitchStateMap switchStates = switchStateRepository.getSwitchStateListForTrackLayout(activeLayoutId);
 
+                // der Parser arbeitet auf einem eigenen Raster, das gecachte Layout bleibt unverändert
                 LayoutParser parser = new LayoutParser(
-                    trackLayoutRepository.getLayout(activeLayoutId),
+                    layoutCache.get(activeLayoutId, trackLayoutRepository::getLayout).symbols(),
                     blockContacts,
                     switchStates
                 ).parse();
 
                 BlockNodeMap blocks = parser.getBlockMap();
-                SimpleRouter router = new SimpleRouter(blocks);
+                RouterInterface router = new RouteCache(
+                    new RouteTable(blocks, interlockBlock::getOccupiedBlocks, getRoutingCosts()).precompute()
+                );
 
                 ActionListGenerator generator = new ActionListGenerator(blockContacts, switchStates, dispatcher);
                 TrainRunner trainRunner = new TrainRunner(router, interlockBlock, interlockRoute, switchStateRepository, generator, activeLayout);
@@ -163,20 +221,27 @@ final public class ServerApplication {
                 scheduler.addTimedAction(new TrainRun(new TrainTimeTableRepository(database), trainRunner, trainRepository));
 
                 BackgroundHandlerComposite handler = new BackgroundHandlerComposite();
-                handler.add(new Acceptor(msgQueueIn, dispatcher, port, maxClients, allowList, notificationHandler, logger));
-                handler.add(new IPC((String)config.getSection("common.serverConfig.ipc"), msgQueueIn, logger));
-                handler.add(new KeepAlive(dispatcher, keepAlivePingIntervall, logger));
+                // @formatter:off
+                switch(transport) {
+                    case BLOCKING     -> handler.add(new Acceptor(msgQueueIn, dispatcher, port, maxClients, allowList, notificationHandler, logger, executionMode, outboundSettings));
+                    case NON_BLOCKING -> handler.add(new NioAcceptor(msgQueueIn, dispatcher, port, maxClients, allowList, notificationHandler, logger, executionMode, outboundSettings));
+                }
+                // @formatter:on
+                handler.add(new IPC((String)config.getSection("common.serverConfig.ipc"), msgQueueIn, logger, executionMode));
+                handler.add(new KeepAlive(dispatcher, keepAlivePingIntervall, logger, executionMode));
 
-                MessageLoop loop = new MessageLoop(dispatcher, notificationHandler, serverStateMachine);
+                MessageLoop loop = new MessageLoop(dispatcher, notificationHandler, serverStateMachine, safetyLatency, loopMode, executionMode);
                 loop.addHandler(new Client(dispatcher));
                 loop.addHandler(new Server(dispatcher, this, allowList, config));
                 loop.addHandler(new Timer(dispatcher, config, scheduler));
                 loop.addHandler(new Environment(dispatcher, new FunctionAddressesRepository(database)));
                 loop.addHandler(new Systems(dispatcher, trackLayoutLock, msgQueueIn, serverStateMachine));
-                loop.addHandler(new Layout(dispatcher, trackLayoutRepository, activeLayout, trackLayoutLock));
                 loop.addHandler(new Interface(dispatcher, serverStateMachine, trainRunner));
+                // SAVE_BLOCK_LIST schreibt die BlockSections neu, auf denen das Stellwerk reserviert
                 loop.addHandler(new Control(dispatcher, blockListRepository, switchStateRepository, trainRepository, activeLayout, trackLayoutLock));
-                loop.addHandler(new Messaging(dispatcher, notificationHandler));
+                // Editor und Messaging teilen keinen Zustand mit dem Stellwerk (LoopMode.SHARDED)
+                loop.addHandler(new Layout(dispatcher, trackLayoutRepository, layoutCache, activeLayout, trackLayoutLock), "layout");
+                loop.addHandler(new Messaging(dispatcher, notificationHandler), "messaging");
 
                 handler.start();
                 try {
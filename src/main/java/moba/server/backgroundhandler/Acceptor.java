@@ -22,31 +22,38 @@ package moba.server.backgroundhandler;
 
 import java.io.IOException;
 import java.net.InetAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.text.MessageFormat;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import moba.server.com.Dispatcher;
-import moba.server.com.Endpoint;
+import moba.server.com.OutboundQueue;
+import moba.server.com.SocketEndpoint;
 import moba.server.datatypes.enumerations.NotificationLevel;
 import moba.server.datatypes.enumerations.NotificationType;
 import moba.server.datatypes.objects.NotificationData;
 import moba.server.messages.MessageQueue;
 import moba.server.utilities.AllowList;
+import moba.server.utilities.ExecutionMode;
 import moba.server.utilities.messaging.NotificationHandler;
 
-final public class Acceptor extends Thread implements BackgroundHandlerInterface {
+final public class Acceptor implements BackgroundHandlerInterface, Runnable {
     // @formatter:off
-    private ServerSocket              serverSocket = null;
-    private final MessageQueue        msgQueue;
-    private final Dispatcher          dispatcher;
-    private final int                 serverPort;
-    private final int                 maxClients;
-    private final AllowList           allowList;
-    private final NotificationHandler notificationHandler;
-    private final Logger              logger;
+    private ServerSocketChannel          serverSocket = null;
+    private final MessageQueue           msgQueue;
+    private final Dispatcher             dispatcher;
+    private final int                    serverPort;
+    private final int                    maxClients;
+    private final AllowList              allowList;
+    private final NotificationHandler    notificationHandler;
+    private final Logger                 logger;
+    private final ExecutionMode          executionMode;
+    private final OutboundQueue.Settings outboundSettings;
+    private Thread                       thread;
     // @formatter:on
 
     public Acceptor(
@@ -56,7 +63,9 @@ final public class Acceptor extends Thread implements BackgroundHandlerInterface
         int maxClients,
         AllowList allowList,
         NotificationHandler notificationHandler,
-        Logger logger
+        Logger logger,
+        ExecutionMode executionMode,
+        OutboundQueue.Settings outboundSettings
     ) {
         // @formatter:off
         this.msgQueue            = msgQueue;
@@ -66,19 +75,22 @@ final public class Acceptor extends Thread implements BackgroundHandlerInterface
         this.allowList           = allowList;
         this.notificationHandler = notificationHandler;
         this.logger              = logger;
+        this.executionMode       = executionMode;
+        this.outboundSettings    = outboundSettings;
         // @formatter:on
     }
 
     public void start() {
-        setName("acceptor");
         try {
-            serverSocket = new ServerSocket(serverPort);
+            serverSocket = ServerSocketChannel.open();
+            serverSocket.bind(new InetSocketAddress(serverPort));
         } catch(IOException e) {
             throw new RuntimeException(e);
         }
 
         logger.log(Level.INFO, "Successful bind on port <{0}>", new Object[]{serverPort});
-        super.start();
+        thread = executionMode.newThread("acceptor", this);
+        thread.start();
     }
 
     public void halt() {
@@ -86,8 +98,8 @@ final public class Acceptor extends Thread implements BackgroundHandlerInterface
             if(serverSocket != null) {
                 serverSocket.close();
             }
-            interrupt();
-            join(250);
+            thread.interrupt();
+            thread.join(250);
         } catch(IOException e) {
             logger.log(Level.WARNING, "could not close server socket! <{0}>", new Object[]{e.toString()});
         } catch(InterruptedException e) {
@@ -102,9 +114,9 @@ final public class Acceptor extends Thread implements BackgroundHandlerInterface
 
         logger.info("acceptor-thread started");
 
-        while(!isInterrupted()) {
+        while(!thread.isInterrupted()) {
             try {
-                Socket socket = serverSocket.accept();
+                SocketChannel socket = serverSocket.accept();
                 logger.log(Level.INFO, "new client <{0}> socket <{1}>", new Object[]{++id, socket.toString()});
 
                 if(!allowedOrigin(socket)) {
@@ -124,7 +136,11 @@ final public class Acceptor extends Thread implements BackgroundHandlerInterface
                     );
                     continue;
                 }
-                (new Endpoint(id, socket, msgQueue, logger)).start();
+                (new SocketEndpoint(
+                    id, socket, msgQueue, new OutboundQueue(outboundSettings), logger, executionMode
+                )).start();
+            } catch(ClosedChannelException e) {
+                break;
             } catch(Exception e) {
                 notificationHandler.add(new NotificationData(e));
             }
@@ -132,8 +148,8 @@ final public class Acceptor extends Thread implements BackgroundHandlerInterface
         logger.info("acceptor-thread terminated");
     }
 
-    private boolean allowedOrigin(Socket socket) {
-        InetAddress addr = socket.getInetAddress();
+    private boolean allowedOrigin(SocketChannel socket) {
+        InetAddress addr = socket.socket().getInetAddress();
 
         if(allowList.isAllowed(addr)) {
             return true;
@@ -25,6 +25,7 @@ import moba.server.messages.MessageQueue;
 import moba.server.messages.messagetypes.InternMessage;
 import moba.server.messages.messagetypes.ServerMessage;
 import moba.server.messages.messagetypes.SystemMessage;
+import moba.server.utilities.ExecutionMode;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -37,26 +38,29 @@ import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-final public class IPC extends Thread implements BackgroundHandlerInterface {
+final public class IPC implements BackgroundHandlerInterface, Runnable {
 
     // @formatter:off
-    private final MessageQueue msgQueue;
-    private final String       fifoFile;
-    private final Logger       logger;
+    private final MessageQueue  msgQueue;
+    private final String        fifoFile;
+    private final Logger        logger;
+    private final ExecutionMode executionMode;
+    private Thread              thread;
     // @formatter:on
 
-    public IPC(String fifoFile, MessageQueue msgQueue, Logger logger) {
+    public IPC(String fifoFile, MessageQueue msgQueue, Logger logger, ExecutionMode executionMode) {
         // @formatter:off
-        this.msgQueue = msgQueue;
-        this.fifoFile = fifoFile;
-        this.logger   = logger;
+        this.msgQueue      = msgQueue;
+        this.fifoFile      = fifoFile;
+        this.logger        = logger;
+        this.executionMode = executionMode;
         // @formatter:on
     }
 
     public void halt() {
         try {
-            interrupt();
-            join(250);
+            thread.interrupt();
+            thread.join(250);
         } catch(InterruptedException e) {
             logger.log(Level.WARNING, "InterruptedException occurred! <{0}>", new Object[]{e.toString()});
         }
@@ -64,8 +68,6 @@ final public class IPC extends Thread implements BackgroundHandlerInterface {
     }
 
     public void start() {
-        setName("ipc");
-
         try {
             File f = new File(fifoFile);
             if(!f.exists()) {
@@ -80,14 +82,15 @@ final public class IPC extends Thread implements BackgroundHandlerInterface {
         } catch(IOException e) {
             throw new RuntimeException(e);
         }
-        super.start();
+        thread = executionMode.newThread("ipc", this);
+        thread.start();
     }
 
     @Override
     public void run() {
         logger.info("ipc-thread started");
 
-        while(!isInterrupted()) {
+        while(!thread.isInterrupted()) {
             try(BufferedReader reader = new BufferedReader(new FileReader(fifoFile))) {
                 String line;
                 while((line = reader.readLine()) != null) {
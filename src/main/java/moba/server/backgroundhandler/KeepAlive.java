@@ -23,6 +23,7 @@ package moba.server.backgroundhandler;
 import moba.server.com.Dispatcher;
 import moba.server.messages.Message;
 import moba.server.messages.messagetypes.ClientMessage;
+import moba.server.utilities.ExecutionMode;
 
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -43,19 +44,21 @@ final public class KeepAlive implements BackgroundHandlerInterface {
     private final long                     intervall;
     private final Logger                   logger;
     private Future<?>                      future;
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+    private final ScheduledExecutorService executor;
     // @formatter:on
 
-    public KeepAlive(Dispatcher dispatcher, long intervall, Logger logger) {
+    public KeepAlive(Dispatcher dispatcher, long intervall, Logger logger, ExecutionMode executionMode) {
         // @formatter:off
         this.dispatcher = dispatcher;
         this.intervall   = intervall;
         this.logger      = logger;
+        this.executor    = Executors.newScheduledThreadPool(1, executionMode.getThreadFactory("keepalive"));
         // @formatter:on
     }
 
     public void halt() {
         future.cancel(true);
+        executor.shutdownNow();
         logger.info("keepalive-thread stopped.");
     }
 
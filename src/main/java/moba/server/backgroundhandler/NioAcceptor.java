@@ -0,0 +1,260 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.backgroundhandler;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import moba.server.com.ChannelEndpoint;
+import moba.server.com.Dispatcher;
+import moba.server.com.OutboundQueue;
+import moba.server.datatypes.enumerations.NotificationLevel;
+import moba.server.datatypes.enumerations.NotificationType;
+import moba.server.datatypes.objects.NotificationData;
+import moba.server.messages.MessageQueue;
+import moba.server.utilities.AllowList;
+import moba.server.utilities.ExecutionMode;
+import moba.server.utilities.messaging.NotificationHandler;
+
+/**
+ * Accepts new clients and serves all client-connections with a single selector-thread instead of one thread per
+ * client.
+ */
+final public class NioAcceptor implements BackgroundHandlerInterface, Runnable {
+    // @formatter:off
+    private static final long            FLUSH_TIMEOUT = 250;
+
+    private Selector                     selector      = null;
+    private ServerSocketChannel          serverChannel = null;
+    private final MessageQueue           msgQueue;
+    private final Dispatcher             dispatcher;
+    private final int                    serverPort;
+    private final int                    maxClients;
+    private final AllowList              allowList;
+    private final NotificationHandler    notificationHandler;
+    private final Logger                 logger;
+    private final ExecutionMode          executionMode;
+    private final OutboundQueue.Settings outboundSettings;
+    private Thread                       thread;
+    // @formatter:on
+
+    public NioAcceptor(
+        MessageQueue msgQueue,
+        Dispatcher dispatcher,
+        int serverPort,
+        int maxClients,
+        AllowList allowList,
+        NotificationHandler notificationHandler,
+        Logger logger,
+        ExecutionMode executionMode,
+        OutboundQueue.Settings outboundSettings
+    ) {
+        // @formatter:off
+        this.msgQueue            = msgQueue;
+        this.dispatcher          = dispatcher;
+        this.serverPort          = serverPort;
+        this.maxClients          = maxClients;
+        this.allowList           = allowList;
+        this.notificationHandler = notificationHandler;
+        this.logger              = logger;
+        this.executionMode       = executionMode;
+        this.outboundSettings    = outboundSettings;
+        // @formatter:on
+    }
+
+    public void start() {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(serverPort));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch(IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        logger.log(Level.INFO, "Successful bind on port <{0}>", new Object[]{serverPort});
+        thread = executionMode.newThread("nio-acceptor", this);
+        thread.start();
+    }
+
+    public void halt() {
+        try {
+            thread.interrupt();
+            if(selector != null) {
+                selector.wakeup();
+            }
+            thread.join(FLUSH_TIMEOUT + 250);
+        } catch(InterruptedException e) {
+            logger.log(Level.WARNING, "InterruptedException occurred! <{0}>", new Object[]{e.toString()});
+        }
+        logger.info("nio-acceptor-thread stopped.");
+    }
+
+    @Override
+    public void run() {
+        long id = 0;
+
+        logger.info("nio-acceptor-thread started");
+
+        while(!thread.isInterrupted()) {
+            try {
+                selector.select();
+            } catch(IOException e) {
+                notificationHandler.add(new NotificationData(e));
+                break;
+            }
+
+            Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+            while(iter.hasNext()) {
+                SelectionKey key = iter.next();
+                iter.remove();
+
+                try {
+                    if(!key.isValid()) {
+                        continue;
+                    }
+                    if(key.isAcceptable()) {
+                        accept(++id);
+                        continue;
+                    }
+                    ChannelEndpoint ep = (ChannelEndpoint)key.attachment();
+                    if(key.isReadable() && !ep.onReadable()) {
+                        continue;
+                    }
+                    if(key.isValid() && key.isWritable()) {
+                        ep.onWritable();
+                    }
+                } catch(CancelledKeyException e) {
+                    // endpoint evicted by the loop-thread meanwhile
+                } catch(Exception e) {
+                    notificationHandler.add(new NotificationData(e));
+                }
+            }
+        }
+        flushPendingFrames();
+        cleanUp();
+        logger.info("nio-acceptor-thread terminated");
+    }
+
+    private void accept(long id)
+    throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if(channel == null) {
+            return;
+        }
+        logger.log(Level.INFO, "new client <{0}> channel <{1}>", new Object[]{id, channel.toString()});
+
+        if(!allowedOrigin(channel)) {
+            channel.close();
+            return;
+        }
+        if(dispatcher.getEndPointsCount() == maxClients) {
+            channel.close();
+            notificationHandler.add(
+                new NotificationData(
+                    NotificationLevel.WARNING,
+                    NotificationType.SERVER_NOTICE,
+                    "Max amount of clients",
+                    MessageFormat.format("Max amount of clients <{0}> connected!", maxClients),
+                    "NioAcceptor.accept()"
+                )
+            );
+            return;
+        }
+        channel.configureBlocking(false);
+        ChannelEndpoint ep = new ChannelEndpoint(id, channel, msgQueue, new OutboundQueue(outboundSettings), logger);
+        ep.setSelectionKey(channel.register(selector, SelectionKey.OP_READ, ep));
+    }
+
+    private void flushPendingFrames() {
+        // reset the interrupted-flag, otherwise select() would return immediately
+        Thread.interrupted();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_TIMEOUT);
+        try {
+            while(true) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if(!hasPendingFrames() || remaining <= 0) {
+                    return;
+                }
+                selector.select(remaining);
+
+                Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                while(iter.hasNext()) {
+                    SelectionKey key = iter.next();
+                    iter.remove();
+                    try {
+                        if(key.isValid() && key.isWritable() && key.attachment() instanceof ChannelEndpoint ep) {
+                            ep.onWritable();
+                        }
+                    } catch(CancelledKeyException e) {
+                        // endpoint evicted meanwhile, continue with the remaining ones
+                    }
+                }
+            }
+        } catch(IOException e) {
+            logger.log(Level.WARNING, "could not flush pending frames! <{0}>", new Object[]{e.toString()});
+        }
+    }
+
+    private boolean hasPendingFrames() {
+        for(SelectionKey key : selector.keys()) {
+            if(key.isValid() && key.attachment() instanceof ChannelEndpoint ep && ep.hasPendingFrames()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cleanUp() {
+        try {
+            for(SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+            serverChannel.close();
+        } catch(IOException e) {
+            logger.log(Level.WARNING, "could not close server channel! <{0}>", new Object[]{e.toString()});
+        }
+    }
+
+    private boolean allowedOrigin(SocketChannel channel) {
+        InetAddress addr = channel.socket().getInetAddress();
+
+        if(allowList.isAllowed(addr)) {
+            return true;
+        }
+        logger.log(Level.WARNING, "access of ip <{0}> is forbidden!", new Object[]{addr});
+        return false;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.com;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import moba.server.datatypes.objects.SocketData;
+import moba.server.exceptions.ClientClosingException;
+import moba.server.json.JsonException;
+import moba.server.messages.MessageQueue;
+
+/**
+ * Non-blocking transport: all channels are served by one selector-thread (see NioAcceptor). Incoming bytes are
+ * collected until a frame is complete, outgoing frames are taken from the outbound-queue as soon as the channel is
+ * writable and sent with a single gathering write.
+ */
+final public class ChannelEndpoint extends Endpoint {
+    // @formatter:off
+    private final SocketChannel     channel;
+    private volatile SelectionKey   key;
+
+    private final ByteBuffer        header   = ByteBuffer.allocate(Frame.HEADER_SIZE);
+    private ByteBuffer              payload  = null;
+
+    private final List<Frame>       batch    = new ArrayList<>();
+    private ByteBuffer[]            pending  = new ByteBuffer[0];
+    private int                     offset   = 0;
+    // @formatter:on
+
+    public ChannelEndpoint(long id, SocketChannel channel, MessageQueue msgQueue, OutboundQueue outbound, Logger logger) {
+        super(id, new SocketData(channel.socket()), msgQueue, outbound, logger);
+        this.channel = channel;
+    }
+
+    public void setSelectionKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    @Override
+    public void closeEndpoint() {
+        if(!channel.isOpen() || !key.selector().isOpen()) {
+            // selector-thread has already been stopped, nobody left to write pending frames
+            shutdown();
+            return;
+        }
+        super.closeEndpoint();
+    }
+
+    /**
+     * Called by the selector-thread on halt: gives pending frames (e.g. CLIENT_RESET) a last chance to be written.
+     */
+    public boolean hasPendingFrames() {
+        return offset < pending.length || !outbound.isEmpty();
+    }
+
+    @Override
+    protected void shutdown() {
+        terminating.set(true);
+        SelectionKey k = key;
+        if(k != null) {
+            k.cancel();
+        }
+        outbound.clear();
+        try {
+            channel.close();
+        } catch(Throwable e) {
+            logger.log(
+                Level.WARNING,
+                "Exception occurred! <{0}> Closing channel failed!", new Object[]{e.toString()}
+            );
+        }
+    }
+
+    /**
+     * Called by the selector-thread. Returns false if the channel has been closed and should be deregistered.
+     */
+    public boolean onReadable() {
+        try {
+            while(true) {
+                if(payload == null) {
+                    if(channel.read(header) < 0) {
+                        throw new IOException("unexpected end of stream");
+                    }
+                    if(header.hasRemaining()) {
+                        return true;
+                    }
+                    header.flip();
+                    int size = header.getInt(2 * Integer.BYTES);
+                    if(size < 0) {
+                        throw new IOException("invalid payload size <" + size + ">");
+                    }
+                    payload = ByteBuffer.wrap(getReadBuffer(size), 0, size);
+                }
+                if(payload.hasRemaining() && channel.read(payload) < 0) {
+                    throw new IOException("unexpected end of stream");
+                }
+                if(payload.hasRemaining()) {
+                    return true;
+                }
+                processFrame();
+            }
+        } catch(ClientClosingException e) {
+            handleClosing();
+            logger.log(Level.INFO, "Endpoint #{0}: closed", new Object[]{endpointData.appId()});
+        } catch(Throwable e) {
+            handleTermination(e);
+            logger.log(
+                Level.SEVERE,
+                "Endpoint #{0}: {1}-Exception, closing client... <{2}>",
+                new Object[]{endpointData.appId(), e.getClass().getSimpleName(), e.toString()}
+            );
+        }
+        shutdown();
+        return false;
+    }
+
+    /**
+     * Called by the selector-thread if the channel is ready for writing.
+     */
+    public void onWritable() {
+        try {
+            while(true) {
+                if(offset == pending.length) {
+                    outbound.drainTo(batch);
+                    if(batch.isEmpty()) {
+                        break;
+                    }
+                    pending = Frame.asByteBuffers(batch);
+                    offset = 0;
+                    batch.clear();
+                }
+                channel.write(pending, offset, pending.length - offset);
+                while(offset < pending.length && !pending[offset].hasRemaining()) {
+                    pending[offset++] = null;
+                }
+                if(offset < pending.length) {
+                    // socket-buffer is full, continue as soon as the channel is writable again
+                    return;
+                }
+                outbound.written();
+            }
+        } catch(IOException e) {
+            handleTermination(e);
+            shutdown();
+            return;
+        }
+        try {
+            key.interestOps(SelectionKey.OP_READ);
+
+            // Another thread may have queued a frame right before OP_WRITE was cleared
+            if(!outbound.isEmpty()) {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+            }
+        } catch(CancelledKeyException e) {
+            // endpoint evicted by the loop-thread meanwhile, nothing left to write
+        }
+    }
+
+    @Override
+    protected void flush() {
+        SelectionKey k = key;
+        if(k == null) {
+            return;
+        }
+        try {
+            k.interestOpsOr(SelectionKey.OP_WRITE);
+            k.selector().wakeup();
+        } catch(CancelledKeyException e) {
+            // channel already closed, the selector-thread reports the termination
+        }
+    }
+
+    private void processFrame()
+    throws IOException, JsonException {
+        int groupId = header.getInt(0);
+        int msgId = header.getInt(Integer.BYTES);
+        byte[] data = payload.array();
+        int size = payload.position();
+
+        header.clear();
+        payload = null;
+
+        handleFrame(groupId, msgId, data, size);
+    }
+}
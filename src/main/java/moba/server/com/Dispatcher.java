@@ -20,33 +20,57 @@
 
 package moba.server.com;
 
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import moba.server.datatypes.enumerations.PayloadEncoding;
 import moba.server.json.JsonEncoder;
 
 import moba.server.json.JsonException;
-import moba.server.json.streamwriter.JsonStreamWriterStringBuilder;
+import moba.server.json.MsgPackEncoder;
+import moba.server.json.streamwriter.JsonStreamWriterBytes;
 import moba.server.messages.Message;
+import moba.server.messages.messagetypes.ClientMessage;
+import moba.server.messages.messagetypes.TimerMessage;
 import moba.server.utilities.logger.MessageLogger;
 
 public class Dispatcher implements AutoCloseable {
+    // one frame per encoding, both uncompressed and compressed
+    private static final int FRAME_VARIANTS = 2 * PayloadEncoding.values().length;
+
     protected final Set<Endpoint> allEndpoints = ConcurrentHashMap.newKeySet();
     protected final Map<Long, Set<Endpoint>> groupEP = new ConcurrentHashMap<>();
 
     protected final MessageLogger messageLogger;
 
+    // endpoints with frames not flushed yet, only set while the current thread runs a batch
+    protected final ThreadLocal<Set<Endpoint>> batch = new ThreadLocal<>();
+
+    // encoding-buffer, reused for every message sent by the current thread
+    protected final ThreadLocal<JsonStreamWriterBytes> writer = ThreadLocal.withInitial(JsonStreamWriterBytes::new);
+
+    // deflater, reused for every frame compressed by the current thread
+    protected final ThreadLocal<FrameCompressor> compressor = ThreadLocal.withInitial(FrameCompressor::new);
+
+    // payloads of at least this size are compressed for clients accepting it, 0 disables the compression
+    protected final int compressionThreshold;
+
     protected Logger logger;
 
     public Dispatcher(MessageLogger messageLogger, Logger logger) {
+        this(messageLogger, logger, 0);
+    }
+
+    public Dispatcher(MessageLogger messageLogger, Logger logger, int compressionThreshold) {
         this.logger = logger;
         this.messageLogger = messageLogger;
+        this.compressionThreshold = compressionThreshold;
     }
 
     public boolean addEndpoint(Endpoint ep) {
@@ -70,6 +94,7 @@ public class Dispatcher implements AutoCloseable {
     }
 
     public void removeEndpoint(Endpoint ep) {
+        ep.setRemoved();
         if(!allEndpoints.remove(ep)) {
             logger.log(Level.WARNING, "could not remove endpoint <{0}> from set!", new Object[]{ep});
         }
@@ -119,17 +144,30 @@ public class Dispatcher implements AutoCloseable {
         return null;
     }
 
+    /**
+     * All messages sent by the calling thread are collected per endpoint until flush() is called. Used by the
+     * message-loop to send everything produced by one message with a single write per endpoint.
+     */
+    public void beginBatch() {
+        batch.set(new HashSet<>());
+    }
+
+    public void flush() {
+        Set<Endpoint> dirty = batch.get();
+        if(dirty == null) {
+            return;
+        }
+        batch.remove();
+        dirty.forEach(Endpoint::flush);
+    }
+
     public void sendSingle(Message message, Endpoint endpoint) {
         try {
             if(endpoint == null) {
                 return;
             }
-            sendMessage(
-                message.getGroupId(),
-                message.getMessageId(),
-                getMessageData(message),
-                endpoint
-            );
+            messageLogger.out(message);
+            sendMessage(getFrame(message, new Frame[FRAME_VARIANTS], endpoint), endpoint);
         } catch(IOException | JsonException e) {
             logger.log(Level.SEVERE, "<{0}>", new Object[]{e.toString()});
         }
@@ -137,12 +175,11 @@ public class Dispatcher implements AutoCloseable {
 
     public void sendGroup(Message message) {
         try {
-            int grpId = message.getGroupId();
-            int msgId = message.getMessageId();
-            String data = getMessageData(message);
+            messageLogger.out(message);
+            Frame[] frames = new Frame[FRAME_VARIANTS];
 
-            sendBroadCastMessage(grpId, msgId, data, grpId);
-            sendBroadCastMessage(grpId, msgId, data, -1);
+            sendBroadCastMessage(message, frames, message.getGroupId());
+            sendBroadCastMessage(message, frames, -1);
         } catch(IOException | JsonException e) {
             logger.log(Level.SEVERE, "<{0}>", new Object[]{e.toString()});
         }
@@ -150,49 +187,105 @@ public class Dispatcher implements AutoCloseable {
 
     public void sendAll(Message message) {
         try {
-            int grpId = message.getGroupId();
-            int msgId = message.getMessageId();
-            String data = getMessageData(message);
-
-            allEndpoints.forEach(ep->{
-                try {
-                    sendMessage(grpId, msgId, data, ep);
-                } catch(IOException e) {
-                    logger.log(Level.SEVERE, "<{0}>", new Object[]{e.toString()});
-                }
-            });
+            messageLogger.out(message);
+            Frame[] frames = new Frame[FRAME_VARIANTS];
+
+            for(Endpoint ep : allEndpoints) {
+                sendMessage(getFrame(message, frames, ep), ep);
+            }
         } catch(IOException | JsonException e) {
             logger.log(Level.SEVERE, "<{0}>", new Object[]{e.toString()});
         }
     }
 
-    private String getMessageData(Message message)
+    /**
+     * Returns the frame of the message in the endpoint's encoding and compression. Each variant is built once at most,
+     * not until the first recipient asking for it shows up, so a broadcast to plain JSON-clients only costs nothing
+     * extra.
+     */
+    private Frame getFrame(Message message, Frame[] frames, Endpoint endpoint)
     throws IOException, JsonException {
-        messageLogger.out(message);
-        StringBuilder sb = new StringBuilder();
-        JsonStreamWriterStringBuilder jsb = new JsonStreamWriterStringBuilder(sb);
-        JsonEncoder encoder = new JsonEncoder(jsb);
+        PayloadEncoding encoding = endpoint.getEncoding();
+        boolean compress = compressionThreshold > 0 && endpoint.isCompressing();
+        int idx = 2 * encoding.ordinal() + (compress ? 1 : 0);
+        if(frames[idx] != null) {
+            return frames[idx];
+        }
+
+        JsonStreamWriterBytes writer = this.writer.get();
+        writer.reset();
+        JsonEncoder encoder;
+        if(encoding == PayloadEncoding.MSGPACK) {
+            encoder = new MsgPackEncoder(writer);
+        } else {
+            encoder = new JsonEncoder(writer);
+        }
         encoder.encode(message.getData());
-        return sb.toString();
+
+        boolean small = writer.size() < compressionThreshold;
+        if(compress && !small) {
+            FrameCompressor compressor = this.compressor.get();
+            int size = compressor.compress(writer.getBuffer(), writer.size());
+            if(size != -1) {
+                frames[idx] = new Frame(
+                    message.getGroupId(),
+                    message.getMessageId(),
+                    compressor.getBuffer(),
+                    size,
+                    isDroppable(message),
+                    true
+                );
+                return frames[idx];
+            }
+        }
+
+        Frame frame = new Frame(
+            message.getGroupId(),
+            message.getMessageId(),
+            writer.getBuffer(),
+            writer.size(),
+            isDroppable(message)
+        );
+        // the uncompressed frame serves both variants, if compressing was not worthwhile
+        frames[idx] = frame;
+        if(compress || small) {
+            frames[2 * encoding.ordinal()] = frame;
+            frames[2 * encoding.ordinal() + 1] = frame;
+        }
+        return frame;
+    }
+
+    /**
+     * Periodic messages are superseded by the next one of the same type, so they may be dropped for slow clients.
+     */
+    private static boolean isDroppable(Message message) {
+        int grpId = message.getGroupId();
+        int msgId = message.getMessageId();
+
+        return
+            grpId == ClientMessage.GROUP_ID && msgId == ClientMessage.PING.getMessageId() ||
+            grpId == TimerMessage.GROUP_ID && msgId == TimerMessage.GLOBAL_TIMER_EVENT.getMessageId();
     }
 
-    protected void sendBroadCastMessage(int grpId, int msgId, String data, int groupKey)
+    protected void sendBroadCastMessage(Message message, Frame[] frames, int groupKey)
     throws IOException, JsonException {
         Set<Endpoint> endpoints = this.groupEP.get((long)groupKey);
         if(endpoints == null) {
             return;
         }
         for(Endpoint ep : endpoints) {
-            sendMessage(grpId, msgId, data, ep);
+            sendMessage(getFrame(message, frames, ep), ep);
         }
     }
 
-    protected void sendMessage(int grpId, int msgId, String data, Endpoint endpoint)
-    throws IOException {
-        DataOutputStream dataOutputStream = endpoint.getDataOutputStream();
-        dataOutputStream.writeInt(grpId);
-        dataOutputStream.writeInt(msgId);
-        dataOutputStream.writeInt(data.length());
-        dataOutputStream.write(data.getBytes());
+    protected void sendMessage(Frame frame, Endpoint endpoint) {
+        endpoint.write(frame);
+
+        Set<Endpoint> dirty = batch.get();
+        if(dirty == null) {
+            endpoint.flush();
+            return;
+        }
+        dirty.add(endpoint);
     }
 }
@@ -20,11 +20,9 @@
 
 package moba.server.com;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -32,71 +30,98 @@ import java.util.logging.Logger;
 
 import moba.server.datatypes.base.DateTime;
 import moba.server.datatypes.base.Version;
+import moba.server.datatypes.enumerations.ClientError;
 import moba.server.datatypes.enumerations.NotificationLevel;
 import moba.server.datatypes.enumerations.NotificationType;
+import moba.server.datatypes.enumerations.PayloadEncoding;
 import moba.server.datatypes.objects.*;
 import moba.server.exceptions.ClientClosingException;
-import moba.server.json.JsonDecoder;
+import moba.server.exceptions.ClientErrorException;
+import moba.server.json.JsonByteDecoder;
 import moba.server.json.JsonException;
 import moba.server.json.JsonSerializerInterface;
-import moba.server.json.streamreader.JsonStreamReaderBytes;
-import moba.server.json.stringreader.JsonStringReader;
 import moba.server.messages.Message;
 import moba.server.messages.MessageQueue;
+import moba.server.messages.MessageTypes;
 import moba.server.messages.messagetypes.ClientMessage;
 import moba.server.messages.messagetypes.InternMessage;
 
-final public class Endpoint extends Thread implements JsonSerializerInterface<Object> {
+/**
+ * Common part of a client connection. The transport (blocking socket with a reader-thread per client or a
+ * non-blocking channel served by a selector) is implemented by the subclasses. Each frame on the wire consists of
+ * [groupId][msgId][length][payload]. The payload is JSON, frames sent to the client are encoded as MessagePack
+ * instead if the client asked for it in its CLIENT_START (key "encoding"). Clients passing "compression": true
+ * receive large payloads compressed (see Frame).
+ */
+abstract public class Endpoint implements JsonSerializerInterface<Object> {
     // @formatter:off
-    private AppData                appData;
-    private EndpointData           endpointData;
-    private final Socket           socket;
+    protected static final long   CLOSE_TIMEOUT = 250;
+    protected static final int    MAX_RETAINED  = 64 * 1024;
 
-    private final AtomicBoolean    terminating = new AtomicBoolean(false);
+    protected AppData             appData;
+    protected EndpointData        endpointData;
 
-    private final MessageQueue     msgQueue;
-    private final Logger           logger;
+    protected final AtomicBoolean terminating = new AtomicBoolean(false);
+    protected volatile boolean    removed     = false;
 
-    private final DataOutputStream dataOutputStream;
-    private final DataInputStream  dataInputStream;
-    // @formatter:on
+    protected final MessageQueue  msgQueue;
+    protected final OutboundQueue outbound;
+    protected final Logger        logger;
 
-    public Endpoint(long id, Socket socket, MessageQueue msgQueue, Logger logger)
-    throws IOException {
-        this.endpointData = new EndpointData(null, id, new DateTime(), new SocketData(socket));
+    private final JsonByteDecoder decoder       = new JsonByteDecoder();
+    private byte[]                readBuffer    = new byte[1024];
+    // @formatter:on
 
+    protected Endpoint(long id, SocketData socketData, MessageQueue msgQueue, OutboundQueue outbound, Logger logger) {
         // @formatter:off
-        this.msgQueue  = msgQueue;
-        this.logger    = logger;
+        this.endpointData = new EndpointData(null, id, new DateTime(), socketData, null);
+        this.msgQueue     = msgQueue;
+        this.outbound     = outbound;
+        this.logger       = logger;
+        // @formatter:on
+    }
 
-        // TODO: Das hier ist nun nicht so schön: Wir haben einmal socket und einmal socketData!
-        this.socket    = socket;
+    /**
+     * Closes the connection immediately, frames not written so far are discarded.
+     */
+    abstract protected void shutdown();
 
-        this.dataOutputStream = new DataOutputStream(socket.getOutputStream());
-        this.dataInputStream  = new DataInputStream(socket.getInputStream());
-        // @formatter:on
+    /**
+     * Hands all frames queued so far to the writer, which sends them with a single gathering write.
+     */
+    abstract protected void flush();
 
-        setName("endpoint #" + id);
+    /**
+     * Queues the frame for the endpoint's writer. Never blocks the calling thread: if the client doesn't keep up and
+     * the outbound-queue overflows, the client gets disconnected. The frame is sent not until flush() is called.
+     */
+    protected void write(Frame frame) {
+        if(terminating.get()) {
+            return;
+        }
+        if(!outbound.offer(frame)) {
+            evict();
+        }
     }
 
+    /**
+     * Closes the connection after the frames already queued (e.g. CLIENT_RESET) have been written.
+     */
     public void closeEndpoint() {
         terminating.set(true);
-        if(isAlive()) {
-            interrupt();
-            try {
-                join(250);
-            } catch(InterruptedException e) {
-                logger.log(Level.WARNING, "InterruptedException occurred! <{0}>", new Object[]{e.toString()});
-            }
-        }
+        flush();
         try {
-            socket.close();
-        } catch(Throwable e) {
-            logger.log(
-                Level.WARNING,
-                "Exception occurred! <{0}> Closing socket failed!", new Object[]{e.toString()}
-            );
+            if(!outbound.awaitEmpty(CLOSE_TIMEOUT)) {
+                logger.log(
+                    Level.WARNING,
+                    "Endpoint #{0}: pending frames discarded <{1}>",
+                    new Object[]{endpointData.appId(), outbound.getStatistics()}
+                );
+            }
+        } catch(InterruptedException e) {
+            logger.log(Level.WARNING, "InterruptedException occurred! <{0}>", new Object[]{e.toString()});
         }
+        shutdown();
     }
 
     @Override
@@ -110,53 +135,7 @@ final public class Endpoint extends Thread implements JsonSerializerInterface<Ob
 
     @Override
     public Object toJson() {
-        return endpointData;
-    }
-
-    @Override
-    public void run() {
-        long id = endpointData.appId();
-        logger.log(Level.INFO, "Endpoint #{0}: thread started", new Object[]{id});
-        try {
-            init();
-            while(!isInterrupted()) {
-                msgQueue.add(getNextMessage());
-            }
-        } catch(ClientClosingException e) {
-            msgQueue.add(new Message(
-                InternMessage.REMOVE_CLIENT,
-                new NotificationData(
-                    NotificationLevel.NOTICE,
-                    NotificationType.CLIENT_NOTICE,
-                    "Client closed",
-                    "Client \"" + this + "\" was closed",
-                    "Endpoint.run()",
-                    this
-                ),
-                this
-            ));
-            logger.log(Level.INFO, "Endpoint #{0}: thread terminated", new Object[]{id});
-        } catch(Throwable e) {
-            if(!terminating.get()) {
-                msgQueue.add(new Message(
-                    InternMessage.REMOVE_CLIENT,
-                    new NotificationData(
-                        NotificationLevel.CRITICAL,
-                        NotificationType.CLIENT_ERROR,
-                        "Client reset",
-                        "Client \"" + this + "\" was terminated. Reason: \"" + e + "\"",
-                        "Endpoint.run()",
-                        this
-                    ),
-                    this
-                ));
-            }
-            logger.log(
-                Level.SEVERE,
-                "Endpoint #{0}: {1}-Exception, closing client... <{2}>",
-                new Object[]{id, getClass().getSimpleName(), e.toString()}
-            );
-        }
+        return endpointData.withOutboundQueue(outbound.getStatistics());
     }
 
     public long getAppId() {
@@ -167,35 +146,155 @@ final public class Endpoint extends Thread implements JsonSerializerInterface<Ob
         return appData.msgGroups();
     }
 
-    public DataOutputStream getDataOutputStream() {
-        return dataOutputStream;
+    /**
+     * Set as soon as the message-loop has removed the client, messages of the client still queued are discarded
+     */
+    public boolean isRemoved() {
+        return removed;
     }
 
-    private Message getNextMessage()
-    throws IOException, JsonException {
-        int groupId = dataInputStream.readInt();
-        int msgId = dataInputStream.readInt();
-        int size = dataInputStream.readInt();
-
-        byte[] buffer = new byte[size];
-        int len = dataInputStream.read(buffer, 0, size);
+    void setRemoved() {
+        removed = true;
+    }
 
-        if(len != size) {
-            throw new IOException("unexpected end of stream");
+    /**
+     * Encoding of the frames sent to this endpoint
+     */
+    public PayloadEncoding getEncoding() {
+        if(appData == null) {
+            return PayloadEncoding.JSON;
         }
+        return appData.encoding();
+    }
+
+    /**
+     * True if the client accepts compressed frames
+     */
+    public boolean isCompressing() {
+        return appData != null && appData.compression();
+    }
 
-        JsonDecoder decoder = new JsonDecoder(new JsonStringReader(new JsonStreamReaderBytes(buffer)));
+    /**
+     * Decodes a complete frame and passes the message to the message-queue. The very first frame of each
+     * connection has to be a CLIENT_START. A payload not matching the data-type of its message is passed on as
+     * ClientErrorException, the message-loop answers it with ClientMessage.ERROR and the connection is kept.
+     */
+    protected void handleFrame(int groupId, int msgId, byte[] payload, int length)
+    throws IOException, JsonException {
+        long receivedAt = System.nanoTime();
         if(ClientMessage.GROUP_ID == groupId && ClientMessage.CLOSING.getMessageId() == msgId) {
             throw new ClientClosingException("closing message received, terminating endpoint");
         }
 
-        return new Message(groupId, msgId, decoder.decode(), this);
+        Class<?> dataType = MessageTypes.getDataType(groupId, msgId);
+        Object data;
+        if(dataType == null) {
+            data = decoder.decode(payload, 0, length);
+        } else {
+            data = decode(payload, length, dataType);
+        }
+
+        Message msg = new Message(groupId, msgId, data, this);
+        msg.setReceivedAt(receivedAt);
+        if(appData == null) {
+            init(msg);
+        }
+        msgQueue.add(msg);
+    }
+
+    /**
+     * Returns the buffer for the payload of the next frame, reused as long as the frames fit into MAX_RETAINED. The
+     * payload is decoded before the next frame is read, so a single buffer per endpoint is sufficient.
+     */
+    private Object decode(byte[] payload, int length, Class<?> dataType)
+    throws IOException, JsonException {
+        try {
+            return decoder.decode(payload, 0, length, dataType);
+        } catch(JsonException e) {
+            if(appData == null) {
+                throw e;
+            }
+            // Der Frame war vollständig, die Verbindung bleibt also synchron
+            return new ClientErrorException(ClientError.INVALID_DATA_SEND, "invalid payload: " + e.getMessage());
+        }
+    }
+
+    protected byte[] getReadBuffer(int size) {
+        if(size <= readBuffer.length) {
+            return readBuffer;
+        }
+        if(size > MAX_RETAINED) {
+            return new byte[size];
+        }
+        readBuffer = new byte[size];
+        return readBuffer;
+    }
+
+    protected void handleClosing() {
+        if(!terminating.compareAndSet(false, true)) {
+            return;
+        }
+        msgQueue.add(new Message(
+            InternMessage.REMOVE_CLIENT,
+            new NotificationData(
+                NotificationLevel.NOTICE,
+                NotificationType.CLIENT_NOTICE,
+                "Client closed",
+                "Client \"" + this + "\" was closed",
+                "Endpoint.run()",
+                this
+            ),
+            this
+        ));
+    }
+
+    protected void handleTermination(Throwable e) {
+        if(!terminating.compareAndSet(false, true)) {
+            return;
+        }
+        msgQueue.add(new Message(
+            InternMessage.REMOVE_CLIENT,
+            new NotificationData(
+                NotificationLevel.CRITICAL,
+                NotificationType.CLIENT_ERROR,
+                "Client reset",
+                "Client \"" + this + "\" was terminated. Reason: \"" + e + "\"",
+                "Endpoint.run()",
+                this
+            ),
+            this
+        ));
+    }
+
+    private void evict() {
+        if(!terminating.compareAndSet(false, true)) {
+            return;
+        }
+        OutboundQueueData statistics = outbound.getStatistics();
+        logger.log(
+            Level.WARNING,
+            "Endpoint #{0}: outbound-queue overflow <{1}>, disconnecting client...",
+            new Object[]{endpointData.appId(), statistics}
+        );
+        shutdown();
+        msgQueue.add(new Message(
+            InternMessage.REMOVE_CLIENT,
+            new NotificationData(
+                NotificationLevel.WARNING,
+                NotificationType.CLIENT_ERROR,
+                "Client too slow",
+                "Client \"" + this + "\" was disconnected. Outbound-queue overflow (capacity " +
+                statistics.capacity() + ")",
+                "Endpoint.write()",
+                this
+            ),
+            this
+        ));
     }
 
     @SuppressWarnings("unchecked")
-    private void init()
-    throws IOException, JsonException {
-        Message msg = getNextMessage();
+    private void init(Message msg)
+    throws IOException {
         if(
             ClientMessage.GROUP_ID != msg.getGroupId() ||
             ClientMessage.START.getMessageId() != msg.getMessageId()
@@ -209,13 +308,29 @@ final public class Endpoint extends Thread implements JsonSerializerInterface<Ob
             throw new IOException("invalid msg groups given");
         }
 
+        PayloadEncoding encoding = PayloadEncoding.JSON;
+        Object e = map.get("encoding");
+        if(e != null) {
+            try {
+                encoding = PayloadEncoding.valueOf(e.toString().toUpperCase(Locale.ROOT));
+            } catch(IllegalArgumentException ex) {
+                // Aushandlung: ein neuerer Client bekommt eben JSON
+                logger.log(
+                    Level.WARNING,
+                    "Endpoint #{0}: unsupported encoding <{1}> requested, falling back to JSON",
+                    new Object[]{endpointData.appId(), e}
+                );
+            }
+        }
+
         appData = new AppData(
             (String)map.get("name"),
             new Version((String)map.get("version")),
             (String)map.get("description"),
-            (ArrayList<Long>)o
+            (ArrayList<Long>)o,
+            encoding,
+            Boolean.TRUE.equals(map.get("compression"))
         );
         endpointData = endpointData.withAppData(appData);
-        msgQueue.add(msg);
     }
 }
@@ -0,0 +1,95 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.com;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Complete, immutable wire-frame ([groupId][msgId][length][payload]). A frame is built once per message and shared
+ * between all recipients of a broadcast. The highest bit of the length-field marks a payload compressed with zlib.
+ */
+final public class Frame {
+    // @formatter:off
+    public static final int HEADER_SIZE = 3 * Integer.BYTES;
+    public static final int COMPRESSED  = 0x80000000;
+
+    private final byte[]    data;
+    private final boolean   droppable;
+    private final boolean   compressed;
+    // @formatter:on
+
+    public Frame(int grpId, int msgId, String payload, boolean droppable) {
+        this(grpId, msgId, payload.getBytes(StandardCharsets.UTF_8), droppable);
+    }
+
+    public Frame(int grpId, int msgId, byte[] payload, boolean droppable) {
+        this(grpId, msgId, payload, payload.length, droppable);
+    }
+
+    /**
+     * Takes the first length bytes of payload, so a reused encoding-buffer is copied exactly once.
+     */
+    public Frame(int grpId, int msgId, byte[] payload, int length, boolean droppable) {
+        this(grpId, msgId, payload, length, droppable, false);
+    }
+
+    public Frame(int grpId, int msgId, byte[] payload, int length, boolean droppable, boolean compressed) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+        buffer.putInt(grpId).putInt(msgId).putInt(compressed ? length | COMPRESSED : length).put(payload, 0, length);
+        this.data = buffer.array();
+        this.droppable = droppable;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Droppable frames carry a periodic state (e.g. PING or the global timer) which is superseded by the next frame
+     * of the same type. They may be discarded if the client can't keep up.
+     */
+    public boolean isDroppable() {
+        return droppable;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Returns a read-only view on the frame with its own position, so several channels can write the same frame
+     * concurrently.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    public static ByteBuffer[] asByteBuffers(List<Frame> frames) {
+        ByteBuffer[] buffers = new ByteBuffer[frames.size()];
+        for(int i = 0; i < buffers.length; i++) {
+            buffers[i] = frames.get(i).asByteBuffer();
+        }
+        return buffers;
+    }
+}
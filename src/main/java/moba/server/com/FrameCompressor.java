@@ -0,0 +1,69 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.com;
+
+import java.util.zip.Deflater;
+
+/**
+ * Deflater (zlib, RFC 1950) with its output-buffer, reused for every frame compressed by the same thread.
+ */
+final class FrameCompressor {
+
+    // @formatter:off
+    private static final int MAX_RETAINED = 64 * 1024;
+
+    private final Deflater   deflater     = new Deflater(Deflater.BEST_SPEED);
+    private byte[]           buffer       = new byte[1024];
+    private byte[]           output       = buffer;
+    // @formatter:on
+
+    /**
+     * Compresses the first length bytes of payload into getBuffer(). Returns the compressed size or -1 if the payload
+     * does not get smaller, so sending it uncompressed is the better choice.
+     */
+    int compress(byte[] payload, int length) {
+        output = buffer;
+        if(output.length < length) {
+            output = new byte[length];
+            // Puffer für einzelne, sehr große Frames (komplettes Layout) nicht dauerhaft halten
+            if(length <= MAX_RETAINED) {
+                buffer = output;
+            }
+        }
+
+        deflater.reset();
+        deflater.setInput(payload, 0, length);
+        deflater.finish();
+
+        int size = 0;
+        while(!deflater.finished() && size < length) {
+            size += deflater.deflate(output, size, length - size);
+        }
+        if(!deflater.finished()) {
+            return -1;
+        }
+        return size;
+    }
+
+    byte[] getBuffer() {
+        return output;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.com;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import moba.server.datatypes.objects.OutboundQueueData;
+
+/**
+ * Bounded queue of outgoing frames for a single endpoint. The message-loop only enqueues, the frames are written by
+ * the endpoint's own writer, so a stalled client can't block the message-loop anymore. The writer always takes all
+ * queued frames at once.
+ */
+final public class OutboundQueue {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,   // verwerfe den ältesten verwerfbaren Frame (z.B. PING), sonst Client trennen
+        DISCONNECT     // Client bei Überlauf immer trennen
+    }
+
+    public record Settings(int capacity, OverflowPolicy policy) {
+    }
+
+    // @formatter:off
+    private final ArrayDeque<Frame> frames;
+    private final int               capacity;
+    private final OverflowPolicy    policy;
+
+    private final ReentrantLock     lock     = new ReentrantLock();
+    private final Condition         notEmpty = lock.newCondition();
+    private final Condition         drained  = lock.newCondition();
+
+    private boolean                 published     = false;
+    private int                     inFlight      = 0;
+    private int                     highWaterMark = 0;
+    private long                    dropped       = 0;
+    // @formatter:on
+
+    public OutboundQueue(Settings settings) {
+        // @formatter:off
+        this.capacity = settings.capacity();
+        this.policy   = settings.policy();
+        this.frames   = new ArrayDeque<>(capacity);
+        // @formatter:on
+    }
+
+    /**
+     * Returns false if the frame could not be queued and the client has to be disconnected.
+     */
+    public boolean offer(Frame frame) {
+        lock.lock();
+        try {
+            if(frames.size() < capacity) {
+                add(frame);
+                return true;
+            }
+            if(policy == OverflowPolicy.DISCONNECT) {
+                return false;
+            }
+            Iterator<Frame> iter = frames.iterator();
+            while(iter.hasNext()) {
+                if(iter.next().isDroppable()) {
+                    iter.remove();
+                    dropped++;
+                    add(frame);
+                    return true;
+                }
+            }
+            if(frame.isDroppable()) {
+                dropped++;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands all frames queued so far over to the (blocking) writer.
+     */
+    public void publish() {
+        lock.lock();
+        try {
+            published = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until frames have been published and moves all queued frames into the given list, so the writer can
+     * send them with a single (gathering) write.
+     */
+    public void awaitFrames(List<Frame> batch)
+    throws InterruptedException {
+        lock.lock();
+        try {
+            while(!published || frames.isEmpty()) {
+                notEmpty.await();
+            }
+            published = false;
+            moveTo(batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves all queued frames into the given list without blocking.
+     */
+    public void drainTo(List<Frame> batch) {
+        lock.lock();
+        try {
+            moveTo(batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Has to be called by the writer as soon as the frames taken last have been written completely.
+     */
+    public void written() {
+        lock.lock();
+        try {
+            inFlight = 0;
+            if(frames.isEmpty()) {
+                drained.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until all queued frames have been written. Returns false on timeout.
+     */
+    public boolean awaitEmpty(long timeoutMillis)
+    throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while(!frames.isEmpty() || inFlight > 0) {
+                if(nanos <= 0) {
+                    return false;
+                }
+                nanos = drained.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return frames.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            frames.clear();
+            inFlight = 0;
+            published = false;
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OutboundQueueData getStatistics() {
+        lock.lock();
+        try {
+            return new OutboundQueueData(frames.size(), capacity, highWaterMark, dropped);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Frame frame) {
+        frames.add(frame);
+        highWaterMark = Math.max(highWaterMark, frames.size());
+    }
+
+    private void moveTo(List<Frame> batch) {
+        inFlight = frames.size();
+        batch.addAll(frames);
+        frames.clear();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.com;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import moba.server.datatypes.objects.SocketData;
+import moba.server.exceptions.ClientClosingException;
+import moba.server.messages.MessageQueue;
+import moba.server.utilities.ExecutionMode;
+
+/**
+ * Blocking transport: one reader- and one writer-thread (platform or virtual, see ExecutionMode) per client. The
+ * writer sends all frames queued during one message-loop iteration with a single gathering write.
+ */
+final public class SocketEndpoint extends Endpoint implements Runnable {
+    // @formatter:off
+    private final SocketChannel    channel;
+    private final Thread           reader;
+    private final Thread           writer;
+
+    private final DataInputStream  dataInputStream;
+    // @formatter:on
+
+    public SocketEndpoint(
+        long id,
+        SocketChannel channel,
+        MessageQueue msgQueue,
+        OutboundQueue outbound,
+        Logger logger,
+        ExecutionMode executionMode
+    )
+    throws IOException {
+        super(id, new SocketData(channel.socket()), msgQueue, outbound, logger);
+
+        // @formatter:off
+        this.channel          = channel;
+        this.dataInputStream  = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.reader           = executionMode.newThread("endpoint #" + id, this);
+        this.writer           = executionMode.newThread("endpoint #" + id + " writer", this::runWriter);
+        // @formatter:on
+    }
+
+    public void start() {
+        writer.start();
+        reader.start();
+    }
+
+    @Override
+    protected void shutdown() {
+        terminating.set(true);
+        // closing the socket first unblocks reader and writer
+        closeSocket();
+        outbound.clear();
+        stopThread(writer);
+        stopThread(reader);
+    }
+
+    @Override
+    public void run() {
+        long id = endpointData.appId();
+        logger.log(Level.INFO, "Endpoint #{0}: thread started", new Object[]{id});
+        try {
+            while(!reader.isInterrupted()) {
+                int groupId = dataInputStream.readInt();
+                int msgId = dataInputStream.readInt();
+                int size = dataInputStream.readInt();
+
+                if(size < 0) {
+                    throw new IOException("invalid payload size <" + size + ">");
+                }
+
+                byte[] buffer = getReadBuffer(size);
+                dataInputStream.readFully(buffer, 0, size);
+                handleFrame(groupId, msgId, buffer, size);
+            }
+        } catch(ClientClosingException e) {
+            handleClosing();
+            logger.log(Level.INFO, "Endpoint #{0}: thread terminated", new Object[]{id});
+        } catch(Throwable e) {
+            handleTermination(e);
+            logger.log(
+                Level.SEVERE,
+                "Endpoint #{0}: {1}-Exception, closing client... <{2}>",
+                new Object[]{id, e.getClass().getSimpleName(), e.toString()}
+            );
+        } finally {
+            writer.interrupt();
+            closeSocket();
+        }
+    }
+
+    @Override
+    protected void flush() {
+        outbound.publish();
+    }
+
+    private void runWriter() {
+        List<Frame> batch = new ArrayList<>();
+        try {
+            while(!writer.isInterrupted()) {
+                outbound.awaitFrames(batch);
+                ByteBuffer[] buffers = Frame.asByteBuffers(batch);
+                ByteBuffer last = buffers[buffers.length - 1];
+
+                // a gathering write might be limited to IOV_MAX buffers per call
+                while(last.hasRemaining()) {
+                    channel.write(buffers);
+                }
+                batch.clear();
+                outbound.written();
+            }
+        } catch(InterruptedException e) {
+            // endpoint closed
+        } catch(IOException e) {
+            handleTermination(e);
+            closeSocket();
+        }
+    }
+
+    private void stopThread(Thread thread) {
+        if(!thread.isAlive() || thread == Thread.currentThread()) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(250);
+        } catch(InterruptedException e) {
+            logger.log(Level.WARNING, "InterruptedException occurred! <{0}>", new Object[]{e.toString()});
+        }
+    }
+
+    private void closeSocket() {
+        try {
+            channel.close();
+        } catch(Throwable e) {
+            logger.log(
+                Level.WARNING,
+                "Exception occurred! <{0}> Closing socket failed!", new Object[]{e.toString()}
+            );
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.datatypes.collections;
+
+import moba.server.datatypes.objects.Position;
+import moba.server.datatypes.objects.Symbol;
+import moba.server.datatypes.objects.TrackLayoutSymbolData;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gleisplan als Raster statt als HashMap mit Position als Schlüssel. Die Ebene wird in Kacheln zu 64 x 64 Feldern
+ * aufgeteilt, angelegt werden nur Kacheln mit mindestens einem Symbol. Die Kacheln liegen in einer offenen Hashtabelle
+ * über die gepackten Kachel-Koordinaten (long-Schlüssel, ohne Boxing), innerhalb einer Kachel ist der Zugriff reine
+ * Arithmetik. Der Speicher wächst damit mit der Zahl der Symbole, nicht mit dem umschließenden Bereich: Auch weit
+ * verstreute Symbole kosten nur ihre eigenen Kacheln.
+ *
+ * Die Symbole werden beim Erzeugen kopiert (Symbol hat einen Zustand, den der LayoutParser verändert), das Raster
+ * gehört damit dem Aufrufer allein.
+ */
+final public class LayoutGrid {
+
+    private static final int  TILE_BITS  = 6;
+    private static final int  TILE_SIZE  = 1 << TILE_BITS;
+    private static final int  TILE_MASK  = TILE_SIZE - 1;
+    private static final long COORD_MASK = 0xFFFFFFFFL;
+
+    private static final class Tile {
+        private final Symbol[] symbols = new Symbol[TILE_SIZE * TILE_SIZE];
+        private final long[]   ids     = new long[TILE_SIZE * TILE_SIZE];
+    }
+
+    // @formatter:off
+    private final long   minX;
+    private final long   minY;
+    private final long[] keys;   // (Kachel-Spalte << 32) | Kachel-Zeile
+    private final Tile[] tiles;  // null: Eintrag frei
+    private final int    mask;
+    private final int    size;
+    // @formatter:on
+
+    private LayoutGrid(long minX, long minY, long maxX, long maxY, int size) {
+        if(((maxX - minX) >> TILE_BITS) > Integer.MAX_VALUE || ((maxY - minY) >> TILE_BITS) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("layout too large (" + (maxX - minX + 1) + " x " + (maxY - minY + 1) + ")");
+        }
+
+        // Es gibt höchstens so viele Kacheln wie Symbole, die Tabelle ist damit höchstens halb voll
+        int capacity = Integer.highestOneBit(Math.max(size, 1)) << 2;
+
+        this.minX = minX;
+        this.minY = minY;
+        this.keys = new long[capacity];
+        this.tiles = new Tile[capacity];
+        this.mask = capacity - 1;
+        this.size = size;
+    }
+
+    public static LayoutGrid of(LayoutMap layout) {
+        if(layout.isEmpty()) {
+            return new LayoutGrid(0, 0, 0, 0, 0);
+        }
+
+        long minX = Long.MAX_VALUE;
+        long minY = Long.MAX_VALUE;
+        long maxX = Long.MIN_VALUE;
+        long maxY = Long.MIN_VALUE;
+
+        for(Position pos : layout.keySet()) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+        }
+
+        LayoutGrid grid = new LayoutGrid(minX, minY, maxX, maxY, layout.size());
+
+        for(Map.Entry<Position, TrackLayoutSymbolData> entry : layout.entrySet()) {
+            Position pos = entry.getKey();
+            TrackLayoutSymbolData data = entry.getValue();
+            grid.put(pos.getX(), pos.getY(), data.id(), new Symbol(data.symbol().toJson()));
+        }
+        return grid;
+    }
+
+    /**
+     * Anzahl der Symbole
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Symbol an der Position, null wenn das Feld leer ist oder außerhalb liegt
+     */
+    public Symbol getSymbol(Position pos) {
+        Tile tile = getTile(pos.getX(), pos.getY());
+        return tile == null ? null : tile.symbols[getOffset(pos.getX(), pos.getY())];
+    }
+
+    /**
+     * Id des Symbols an der Position, nur gültig, wenn getSymbol(pos) nicht null ist
+     */
+    public long getId(Position pos) {
+        Tile tile = getTile(pos.getX(), pos.getY());
+        return tile == null ? 0 : tile.ids[getOffset(pos.getX(), pos.getY())];
+    }
+
+    /**
+     * Positionen der Symbole mit den angegebenen Ids in einem Durchlauf über alle Kacheln
+     */
+    public HashMap<Long, Position> getPositions(Set<Long> ids) {
+        HashMap<Long, Position> positions = HashMap.newHashMap(ids.size());
+        long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+
+        for(int t = 0; t < tiles.length; ++t) {
+            Tile tile = tiles[t];
+            if(tile == null) {
+                continue;
+            }
+            for(int i = 0; i < tile.symbols.length; ++i) {
+                if(tile.symbols[i] == null || Arrays.binarySearch(sorted, tile.ids[i]) < 0) {
+                    continue;
+                }
+                long x = minX + ((keys[t] >>> 32) << TILE_BITS) + (i & TILE_MASK);
+                long y = minY + ((keys[t] & COORD_MASK) << TILE_BITS) + (i >> TILE_BITS);
+                positions.put(tile.ids[i], new Position(x, y));
+            }
+        }
+        return positions;
+    }
+
+    private void put(long x, long y, long id, Symbol symbol) {
+        long key = getKey(x, y);
+        int idx = getSlot(key);
+        if(tiles[idx] == null) {
+            keys[idx] = key;
+            tiles[idx] = new Tile();
+        }
+        int offset = getOffset(x, y);
+        tiles[idx].symbols[offset] = symbol;
+        tiles[idx].ids[offset] = id;
+    }
+
+    private Tile getTile(long x, long y) {
+        long key = getKey(x, y);
+        return key < 0 ? null : tiles[getSlot(key)];
+    }
+
+    /**
+     * Gepackte Kachel-Koordinaten oder -1, wenn die Position außerhalb des umschließenden Bereiches liegt
+     */
+    private long getKey(long x, long y) {
+        long dx = x - minX;
+        long dy = y - minY;
+
+        if(dx < 0 || dy < 0) {
+            return -1;
+        }
+
+        long tx = dx >> TILE_BITS;
+        long ty = dy >> TILE_BITS;
+
+        if(tx > Integer.MAX_VALUE || ty > Integer.MAX_VALUE) {
+            return -1;
+        }
+        return tx << 32 | ty;
+    }
+
+    /**
+     * Eintrag mit dem Schlüssel oder der freie Eintrag, an dem er anzulegen wäre (lineares Sondieren)
+     */
+    private int getSlot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int idx = (int)(hash ^ hash >>> 32) & mask;
+        while(tiles[idx] != null && keys[idx] != key) {
+            idx = (idx + 1) & mask;
+        }
+        return idx;
+    }
+
+    private int getOffset(long x, long y) {
+        return (int)(((y - minY) & TILE_MASK) << TILE_BITS | ((x - minX) & TILE_MASK));
+    }
+}
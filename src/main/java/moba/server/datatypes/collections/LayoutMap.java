@@ -20,10 +20,31 @@
 
 package moba.server.datatypes.collections;
 
+import moba.server.datatypes.objects.LayoutSymbolData;
 import moba.server.datatypes.objects.Position;
 import moba.server.datatypes.objects.TrackLayoutSymbolData;
+import moba.server.json.JsonSerializerInterface;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 
-public class LayoutMap extends HashMap<Position, TrackLayoutSymbolData> {
+/**
+ * Symbols of a track-layout by position. Encoded as a list of symbols (same format as SAVE_LAYOUT), JSON-objects
+ * can't have Position as key.
+ */
+public class LayoutMap extends HashMap<Position, TrackLayoutSymbolData> implements JsonSerializerInterface<ArrayList<LayoutSymbolData>> {
+
+    @Override
+    public ArrayList<LayoutSymbolData> toJson() {
+        ArrayList<LayoutSymbolData> symbols = new ArrayList<>(size());
+        for(Map.Entry<Position, TrackLayoutSymbolData> entry : entrySet()) {
+            symbols.add(toSymbolData(entry.getKey(), entry.getValue()));
+        }
+        return symbols;
+    }
+
+    public static LayoutSymbolData toSymbolData(Position pos, TrackLayoutSymbolData data) {
+        return new LayoutSymbolData(data.id(), pos.getX(), pos.getY(), data.symbol().toJson());
+    }
 }
@@ -21,6 +21,7 @@
 package moba.server.datatypes.objects;
 
 import moba.server.datatypes.base.Version;
+import moba.server.datatypes.enumerations.PayloadEncoding;
 
 import java.util.ArrayList;
 
@@ -28,6 +29,8 @@ public record AppData(
     String  name,
     Version version,
     String  description,
-    ArrayList<Long> msgGroups
+    ArrayList<Long> msgGroups,
+    PayloadEncoding encoding,
+    boolean compression
 ) {
 }
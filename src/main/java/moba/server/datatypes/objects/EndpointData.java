@@ -26,9 +26,14 @@ public record EndpointData(
     AppData	appData,
     long	appId,
     DateTime startTime,
-    SocketData socket
+    SocketData socket,
+    OutboundQueueData outboundQueue
 ) {
     public EndpointData withAppData(AppData appData) {
-        return new EndpointData(appData, appId(), startTime(), socket());
+        return new EndpointData(appData, appId(), startTime(), socket(), outboundQueue());
+    }
+
+    public EndpointData withOutboundQueue(OutboundQueueData outboundQueue) {
+        return new EndpointData(appData(), appId(), startTime(), socket(), outboundQueue);
     }
 }
@@ -22,8 +22,6 @@ package moba.server.datatypes.objects;
 
 import moba.server.routing.Direction;
 
-import java.util.Objects;
-
 final public class Position {
 
     private long x;
@@ -69,7 +67,8 @@ final public class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        // gleicher Wert wie Objects.hash(x, y), aber ohne Boxing und varargs-Array
+        return 31 * (31 + Long.hashCode(x)) + Long.hashCode(y);
     }
 
     /**
@@ -0,0 +1,31 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+package moba.server.datatypes.objects;
+
+import java.util.List;
+
+/**
+ * Payload of LayoutMessage.SAVE_LAYOUT, decoded straight from the wire (see MessageTypeInterface.getDataType()).
+ */
+public record SaveTrackLayoutData(
+    Long id,
+    List<LayoutSymbolData> symbols
+) {
+}
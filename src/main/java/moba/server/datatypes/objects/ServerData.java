@@ -37,7 +37,8 @@ public record ServerData(
     String osName,
     String osVersion,
     String fwType,
-    String fwVersion
+    String fwVersion,
+    LatencyData safetyLatency
 ) {
     public static ServerData from(ServerApplication app, Dispatcher dispatcher) {
         return new ServerData(
@@ -51,7 +52,8 @@ public record ServerData(
             java.lang.System.getProperty("os.name", ""),
             java.lang.System.getProperty("os.version", ""),
             java.lang.System.getProperty("java.vm.vendor", ""),
-            java.lang.System.getProperty("java.version", "")
+            java.lang.System.getProperty("java.version", ""),
+            app.getSafetyLatency().getStatistics()
         );
     }
 }
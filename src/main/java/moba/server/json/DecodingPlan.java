@@ -0,0 +1,125 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Components (key, generic type) and canonical constructor of a record, determined once per class. Counterpart of
+ * EncodingPlan for the typed decoding of JsonByteDecoder.
+ */
+final class DecodingPlan {
+
+    private static final ClassValue<DecodingPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected DecodingPlan computeValue(Class<?> cls) {
+            return new DecodingPlan(cls);
+        }
+    };
+
+    // @formatter:off
+    private final String               name;
+    private final String[]             keys;
+    private final Type[]               types;
+    private final Class<?>[]           rawTypes;
+    private final Map<String, Integer> index       = new HashMap<>();
+    private final MethodHandle         constructor;
+    private final String               error;
+    // @formatter:on
+
+    private DecodingPlan(Class<?> cls) {
+        RecordComponent[] components = cls.isRecord() ? cls.getRecordComponents() : new RecordComponent[0];
+
+        name = cls.getSimpleName();
+        keys = new String[components.length];
+        types = new Type[components.length];
+        rawTypes = new Class<?>[components.length];
+
+        for(int i = 0; i < components.length; i++) {
+            keys[i] = components[i].getName();
+            types[i] = components[i].getGenericType();
+            rawTypes[i] = components[i].getType();
+            index.put(keys[i], i);
+        }
+
+        MethodHandle handle = null;
+        String msg = null;
+        if(!cls.isRecord()) {
+            msg = "<" + cls.getName() + "> is not a record";
+        } else {
+            try {
+                var ctor = cls.getDeclaredConstructor(rawTypes);
+                ctor.trySetAccessible();
+                handle = MethodHandles.lookup().unreflectConstructor(ctor)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch(NoSuchMethodException | IllegalAccessException exception) {
+                msg = "no accessible canonical constructor for <" + cls.getName() + ">";
+            }
+        }
+        constructor = handle;
+        error = msg;
+    }
+
+    static DecodingPlan of(Class<?> cls)
+    throws JsonException {
+        DecodingPlan plan = PLANS.get(cls);
+        if(plan.error != null) {
+            throw new JsonException(plan.error);
+        }
+        return plan;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Index of the component with the given name or -1 for an unknown key (skipped by the decoder).
+     */
+    int indexOf(String key) {
+        return index.getOrDefault(key, -1);
+    }
+
+    Type getType(int i) {
+        return types[i];
+    }
+
+    Object create(Object[] args)
+    throws JsonException {
+        for(int i = 0; i < args.length; i++) {
+            if(args[i] == null && rawTypes[i].isPrimitive()) {
+                throw new JsonException("missing value for <" + keys[i] + ">");
+            }
+        }
+        try {
+            return constructor.invokeExact(args);
+        } catch(Throwable exception) {
+            throw new JsonException("could not create <" + name + ">: " + exception.getMessage(), exception);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Precomputed keys and accessors of a record- or bean-class. The reflection (getMethods(), getRecordComponents(),
+ * deriving the key from the getter-name) happens only once per class, encoding then merely calls the method-handles.
+ */
+final class EncodingPlan {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<EncodingPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected EncodingPlan computeValue(Class<?> cls) {
+            if(cls.isRecord()) {
+                return forRecord(cls);
+            }
+            return forBean(cls);
+        }
+    };
+
+    // @formatter:off
+    private final String[]       keys;
+    private final String[]       fields;
+    private final String[]       names;
+    private final MethodHandle[] accessors;
+    private final String         error;
+    // @formatter:on
+
+    private EncodingPlan(List<String> keys, List<String> names, List<MethodHandle> accessors, String error) {
+        // @formatter:off
+        this.keys      = keys.stream().map(EncodingPlan::quote).toArray(String[]::new);
+        this.fields    = keys.toArray(new String[0]);
+        this.names     = names.toArray(new String[0]);
+        this.accessors = accessors.toArray(new MethodHandle[0]);
+        this.error     = error;
+        // @formatter:on
+    }
+
+    static EncodingPlan of(Class<?> cls)
+    throws JsonException {
+        EncodingPlan plan = PLANS.get(cls);
+        if(plan.error != null) {
+            throw new JsonException(plan.error);
+        }
+        return plan;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * The key already quoted and followed by the colon, e.g. <code>"name":</code>
+     */
+    String getKey(int i) {
+        return keys[i];
+    }
+
+    /**
+     * The plain key, e.g. <code>name</code>
+     */
+    String getField(int i) {
+        return fields[i];
+    }
+
+    Object getValue(int i, Object object)
+    throws JsonException {
+        try {
+            return accessors[i].invokeExact(object);
+        } catch(Throwable exception) {
+            throw new JsonException("error in invoking method <" + names[i] + ">", exception);
+        }
+    }
+
+    private static EncodingPlan forRecord(Class<?> cls) {
+        // @formatter:off
+        List<String>       keys      = new ArrayList<>();
+        List<String>       names     = new ArrayList<>();
+        List<MethodHandle> accessors = new ArrayList<>();
+        // @formatter:on
+
+        for(RecordComponent field : cls.getRecordComponents()) {
+            String key = field.getName();
+            try {
+                accessors.add(toHandle(field.getAccessor()));
+            } catch(IllegalAccessException exception) {
+                return new EncodingPlan(keys, names, accessors, "error in invoking method <" + key + ">");
+            }
+            keys.add(key);
+            names.add(key);
+        }
+        return new EncodingPlan(keys, names, accessors, null);
+    }
+
+    private static EncodingPlan forBean(Class<?> cls) {
+        // @formatter:off
+        List<String>       keys      = new ArrayList<>();
+        List<String>       names     = new ArrayList<>();
+        List<MethodHandle> accessors = new ArrayList<>();
+        // @formatter:on
+
+        for(final Method method : cls.getMethods()) {
+            final int modifiers = method.getModifiers();
+
+            if(Modifier.isStatic(modifiers)) {
+                continue;
+            }
+
+            if(method.getParameterTypes().length > 0 || method.getReturnType() == Void.TYPE) {
+                continue;
+            }
+
+            String methodName = method.getName();
+
+            if(methodName.equals("getClass") || methodName.equals("getDeclaringClass")) {
+                continue;
+            }
+
+            String key = "";
+
+            if(methodName.startsWith("get") && methodName.length() > 3) {
+                key = methodName.substring(3);
+            }
+
+            if(methodName.startsWith("is") && methodName.length() > 2) {
+                key = methodName.substring(2);
+            }
+
+            if(key.isEmpty()) {
+                continue;
+            }
+
+            key =
+                key.substring(0, 1).toLowerCase(Locale.ROOT) +
+                key.substring(1);
+
+            try {
+                accessors.add(toHandle(method));
+            } catch(IllegalAccessException exception) {
+                return new EncodingPlan(keys, names, accessors, "error in invoking method <" + methodName + ">");
+            }
+            keys.add(key);
+            names.add(methodName);
+        }
+        return new EncodingPlan(keys, names, accessors, null);
+    }
+
+    private static MethodHandle toHandle(Method method)
+    throws IllegalAccessException {
+        // public methods of non-public classes (e.g. nested implementations) are reachable only this way
+        method.trySetAccessible();
+        return MethodHandles.lookup().unreflect(method).asType(ACCESSOR_TYPE);
+    }
+
+    private static String quote(String key) {
+        return '"' + key + "\":";
+    }
+}
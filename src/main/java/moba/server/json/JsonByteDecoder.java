@@ -0,0 +1,567 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Byte-oriented counterpart of JsonDecoder, parsing straight from a (reusable) buffer instead of one virtual call per
+ * char. Strings and numbers are scanned in bulk, UTF-8 is decoded properly and keys are cached, so decoding allocates
+ * merely the resulting values. Accepts the same input and reports the same errors as JsonDecoder.
+ * Not thread-safe: one instance per endpoint.
+ */
+public final class JsonByteDecoder {
+
+    // @formatter:off
+    private static final int KEY_CACHE_SIZE = 256;
+
+    private final String[]   keys           = new String[KEY_CACHE_SIZE];
+    private final byte[][]   keyBytes       = new byte[KEY_CACHE_SIZE][];
+    private char[]           chars          = new char[64];
+    private byte[]           data;
+    private int              pos;
+    private int              end;
+    // @formatter:on
+
+    public Object decode(byte[] data)
+    throws JsonException, IOException {
+        return decode(data, 0, data.length);
+    }
+
+    public Object decode(byte[] data, int offset, int length)
+    throws JsonException, IOException {
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+        try {
+            return nextValue();
+        } finally {
+            this.data = null;
+        }
+    }
+
+    /**
+     * Binds the JSON straight onto the given record-type, without the intermediate tree of maps and lists. Components
+     * may be records, lists, enums, String, long, int, double, boolean (or their wrappers) and Object, the
+     * latter decoded like decode() does. Unknown keys are skipped, missing ones left null.
+     */
+    public <T> T decode(byte[] data, int offset, int length, Class<T> type)
+    throws JsonException, IOException {
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+        try {
+            return type.cast(nextValue(type));
+        } finally {
+            this.data = null;
+        }
+    }
+
+    private Object nextValue(Type type)
+    throws JsonException, IOException {
+        if(peek() == 'n') {
+            checkNext("null");
+            return null;
+        }
+        // Class zuerst prüfen: final und damit billig, instanceof auf ein Interface ist es nicht
+        if(type instanceof Class<?> cls) {
+            if(cls == Object.class) {
+                return nextValue();
+            }
+            if(peek() == '{') {
+                pos++;
+                return nextRecord(cls);
+            }
+            return convert(nextValue(), cls);
+        }
+        if(type instanceof ParameterizedType pt && pt.getRawType() == java.util.List.class) {
+            expect('[');
+            return nextArray(pt.getActualTypeArguments()[0]);
+        }
+        return nextValue();
+    }
+
+    private Object nextRecord(Class<?> cls)
+    throws JsonException, IOException {
+        DecodingPlan plan = DecodingPlan.of(cls);
+        Object[] args = new Object[plan.size()];
+        boolean[] given = new boolean[plan.size()];
+        String key;
+
+        for(int i = 0; i < JsonDecoder.MAX_STRING_LENGTH; ++i) {
+            byte c = next();
+            switch(c) {
+                case '}' -> {
+                    return plan.create(args);
+                }
+
+                case '"' -> key = nextKey();
+
+                default -> throw new JsonException(
+                    "invalid key: expected a '\"' or '}', got <" + (char)c + "> instead!"
+                );
+            }
+            checkNext(':');
+
+            int idx = plan.indexOf(key);
+            if(idx == -1) {
+                nextValue();
+            } else if(given[idx]) {
+                throw new JsonException("duplicate key <" + key + ">");
+            } else {
+                given[idx] = true;
+                args[idx] = nextValue(plan.getType(idx));
+            }
+
+            c = next();
+            switch(c) {
+                case ',' -> {
+                }
+
+                case '}' -> {
+                    return plan.create(args);
+                }
+
+                default -> throw new JsonException("expected a ',' or '}', got <" + (char)c + "> instead!");
+            }
+        }
+        throw new JsonException("maximum string-length of <" + JsonDecoder.MAX_STRING_LENGTH + "> reached!");
+    }
+
+    private ArrayList<Object> nextArray(Type type)
+    throws JsonException, IOException {
+        ArrayList<Object> arrayList = new ArrayList<>();
+
+        if(peek() == ']') {
+            pos++;
+            return arrayList;
+        }
+        arrayList.add(nextValue(type));
+
+        while(true) {
+            byte c = next();
+
+            switch(c) {
+                case ',' -> arrayList.add(nextValue(type));
+
+                case ']' -> {
+                    return arrayList;
+                }
+
+                default -> throw new JsonException("expected ',' or ']', got <" + (char)c + "> instead!");
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object convert(Object value, Class<?> cls)
+    throws JsonException {
+        if(value == null) {
+            return null;
+        }
+        if((cls == int.class || cls == Integer.class) && value instanceof Long l) {
+            if(l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
+                throw new JsonException("value <" + l + "> out of range");
+            }
+            return l.intValue();
+        }
+        if((cls == double.class || cls == Double.class) && value instanceof Number n) {
+            return n.doubleValue();
+        }
+        if(
+            cls == long.class && value instanceof Long ||
+            cls == boolean.class && value instanceof Boolean ||
+            cls.isInstance(value)
+        ) {
+            return value;
+        }
+        if(cls.isEnum() && value instanceof String str) {
+            try {
+                return Enum.valueOf((Class<? extends Enum>)cls, str);
+            } catch(IllegalArgumentException e) {
+                throw new JsonException("invalid value <" + str + "> for <" + cls.getSimpleName() + ">", e);
+            }
+        }
+        throw new JsonException("expected <" + cls.getSimpleName() + "> but got <" + value + ">");
+    }
+
+    private Object nextValue()
+    throws JsonException, IOException {
+        return switch(peek()) {
+            case 'n' -> {
+                checkNext("null");
+                yield null;
+            }
+
+            case 't' -> {
+                checkNext("true");
+                yield Boolean.TRUE;
+            }
+
+            case 'f' -> {
+                checkNext("false");
+                yield Boolean.FALSE;
+            }
+
+            case '"' -> {
+                pos++;
+                yield nextString();
+            }
+
+            case '{' -> {
+                pos++;
+                yield nextObject();
+            }
+
+            case '[' -> {
+                pos++;
+                yield nextArray();
+            }
+
+            case 0 -> throw new IOException("input stream corrupted!");
+
+            default -> nextNumber();
+        };
+    }
+
+    private Map<String, Object> nextObject()
+    throws JsonException, IOException {
+        Map<String, Object> map = new HashMap<>();
+        String key;
+
+        for(int i = 0; i < JsonDecoder.MAX_STRING_LENGTH; ++i) {
+            byte c = next();
+            switch(c) {
+                case '}' -> {
+                    return map;
+                }
+
+                case '"' -> key = nextKey();
+
+                default -> throw new JsonException(
+                    "invalid key: expected a '\"' or '}', got <" + (char)c + "> instead!"
+                );
+            }
+            checkNext(':');
+
+            if(map.containsKey(key)) {
+                throw new JsonException("duplicate key <" + key + ">");
+            }
+            map.put(key, nextValue());
+
+            c = next();
+            switch(c) {
+                case ',' -> {
+                }
+
+                case '}' -> {
+                    return map;
+                }
+
+                default -> throw new JsonException("expected a ',' or '}', got <" + (char)c + "> instead!");
+            }
+        }
+        throw new JsonException("maximum string-length of <" + JsonDecoder.MAX_STRING_LENGTH + "> reached!");
+    }
+
+    private String nextKey()
+    throws JsonException, IOException {
+        int start = pos;
+        boolean ascii = true;
+
+        for(int i = 0; i < JsonDecoder.MAX_STRING_LENGTH; ++i) {
+            byte c = next();
+
+            if(c == '"') {
+                int length = pos - 1 - start;
+                if(length == 0) {
+                    throw new JsonException("key is empty");
+                }
+                if(ascii) {
+                    return getKey(start, length);
+                }
+                String key = new String(data, start, length, StandardCharsets.UTF_8);
+                for(int j = 0; j < key.length(); j++) {
+                    if(!Character.isLetterOrDigit(key.charAt(j)) && key.charAt(j) != '_') {
+                        throw new JsonException("key contains invalid char!");
+                    }
+                }
+                return key;
+            }
+
+            if(c < 0) {
+                ascii = false;
+                continue;
+            }
+
+            if(!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+                throw new JsonException("key contains invalid char!");
+            }
+        }
+        throw new JsonException("maximum string-length of <" + JsonDecoder.MAX_STRING_LENGTH + "> reached!");
+    }
+
+    /**
+     * The keys of a protocol are few and recur in every message, so they are created only once.
+     */
+    private String getKey(int start, int length) {
+        int hash = 0;
+        for(int i = start; i < start + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+
+        byte[] cached = keyBytes[slot];
+        if(cached != null && Arrays.equals(cached, 0, cached.length, data, start, start + length)) {
+            return keys[slot];
+        }
+        String key = new String(data, start, length, StandardCharsets.ISO_8859_1);
+        keyBytes[slot] = Arrays.copyOfRange(data, start, start + length);
+        keys[slot] = key;
+        return key;
+    }
+
+    /**
+     * Scans up to the closing quote. Without escape-sequences the string is created directly from the buffer,
+     * otherwise the unescaped segments and the escaped chars are collected in a reused char-buffer.
+     */
+    private String nextString()
+    throws JsonException, IOException {
+        // @formatter:off
+        int     start   = pos;
+        int     segment = pos;
+        int     length  = 0;
+        boolean ascii   = true;
+        boolean escaped = false;
+        // @formatter:on
+
+        for(int i = 0; i < JsonDecoder.MAX_STRING_LENGTH; ++i) {
+            if(pos == end) {
+                throw new IOException("input stream corrupted!");
+            }
+            byte c = data[pos];
+            switch(c) {
+                case '"' -> {
+                    pos++;
+                    if(!escaped) {
+                        return new String(
+                            data,
+                            start,
+                            pos - 1 - start,
+                            ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8
+                        );
+                    }
+                    length = appendSegment(length, segment, pos - 1, ascii);
+                    return new String(chars, 0, length);
+                }
+
+                case '\\' -> {
+                    length = appendSegment(length, segment, pos, ascii);
+                    pos++;
+                    length = appendEscape(length);
+                    segment = pos;
+                    ascii = true;
+                    escaped = true;
+                }
+
+                case '\n', '\r' -> throw new JsonException("invalid char");
+
+                case 0 -> throw new IOException("input stream corrupted!");
+
+                default -> {
+                    if(c < 0) {
+                        ascii = false;
+                    }
+                    pos++;
+                }
+            }
+        }
+        throw new JsonException("maximum string-length of <" + JsonDecoder.MAX_STRING_LENGTH + "> reached!");
+    }
+
+    private int appendSegment(int length, int from, int to, boolean ascii) {
+        if(ascii) {
+            ensureChars(length + to - from);
+            for(int i = from; i < to; i++) {
+                chars[length++] = (char)data[i];
+            }
+            return length;
+        }
+        String segment = new String(data, from, to - from, StandardCharsets.UTF_8);
+        ensureChars(length + segment.length());
+        segment.getChars(0, segment.length(), chars, length);
+        return length + segment.length();
+    }
+
+    private int appendEscape(int length)
+    throws JsonException, IOException {
+        ensureChars(length + 1);
+        byte c = next();
+        chars[length] = switch(c) {
+            case 'b' -> '\b';
+            case 't' -> '\t';
+            case 'n' -> '\n';
+            case 'f' -> '\f';
+            case 'r' -> '\r';
+            case 'u' -> nextUnicodeEscape();
+
+            case '"', '\\', '/' -> (char)c;
+            default -> throw new JsonException("invalid escape-sequence <" + (char)c + ">");
+        };
+        return length + 1;
+    }
+
+    private char nextUnicodeEscape()
+    throws JsonException, IOException {
+        int value = 0;
+        for(int i = 0; i < 4; i++) {
+            int digit = Character.digit(next(), 16);
+            if(digit < 0) {
+                throw new JsonException("invalid escape-sequence <u>");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char)value;
+    }
+
+    private ArrayList<Object> nextArray()
+    throws JsonException, IOException {
+        ArrayList<Object> arrayList = new ArrayList<>();
+
+        if(peek() == ']') {
+            pos++;
+            return arrayList;
+        }
+        arrayList.add(nextValue());
+
+        while(true) {
+            byte c = next();
+
+            switch(c) {
+                case ',' -> arrayList.add(nextValue());
+
+                case ']' -> {
+                    return arrayList;
+                }
+
+                default -> throw new JsonException("expected ',' or ']', got <" + (char)c + "> instead!");
+            }
+        }
+    }
+
+    /**
+     * Plain integers (the vast majority: ids, positions, counters) are accumulated directly, anything else is handed
+     * to JsonDecoder.parseNumber().
+     */
+    private Object nextNumber()
+    throws JsonException {
+        int start = pos;
+        boolean plain = true;
+
+        for(int i = 0; i < JsonDecoder.MAX_STRING_LENGTH; ++i) {
+            byte c = pos == end ? 0 : data[pos];
+
+            if(c == ',' || c == ']' || c == '}' || c == 0) {
+                return toNumber(start, pos - start, plain);
+            }
+            pos++;
+
+            if(c >= '0' && c <= '9') {
+                continue;
+            }
+            if(c == '-' || c == '+' || c == 'e' || c == 'E' || c == '.' || c == 'x' || c == 'X') {
+                plain &= (c == '-' && pos - 1 == start);
+                continue;
+            }
+            throw new JsonException(
+                "expected digit, '-', '+' or 'e', 'E', '.' or 'x', 'X' but found <" + (char)c + ">!"
+            );
+        }
+        throw new JsonException("maximum string-length of <" + JsonDecoder.MAX_STRING_LENGTH + "> reached!");
+    }
+
+    private Object toNumber(int start, int length, boolean plain)
+    throws JsonException {
+        boolean negative = length > 0 && data[start] == '-';
+        int digits = negative ? length - 1 : length;
+
+        // 18 digits never overflow a long
+        if(!plain || digits == 0 || digits > 18) {
+            return JsonDecoder.parseNumber(new String(data, start, length, StandardCharsets.ISO_8859_1));
+        }
+        long value = 0;
+        for(int i = negative ? start + 1 : start; i < start + length; i++) {
+            value = value * 10 + (data[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private void expect(char x)
+    throws JsonException {
+        if(peek() != x) {
+            throw new JsonException("expected '" + x + "' found '" + (char)peek() + "'!");
+        }
+        pos++;
+    }
+
+    private byte peek() {
+        if(pos == end) {
+            return 0;
+        }
+        return data[pos];
+    }
+
+    private byte next()
+    throws IOException {
+        if(pos == end || data[pos] == 0) {
+            throw new IOException("input stream corrupted!");
+        }
+        return data[pos++];
+    }
+
+    private void checkNext(char x)
+    throws IOException {
+        byte c = next();
+        if(c != x) {
+            throw new IOException("expected '" + x + "' found '" + (char)c + "'!");
+        }
+    }
+
+    private void checkNext(String s)
+    throws IOException {
+        for(int i = 0; i < s.length(); i++) {
+            checkNext(s.charAt(i));
+        }
+    }
+
+    private void ensureChars(int capacity) {
+        if(capacity > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, capacity));
+        }
+    }
+}
@@ -239,7 +239,7 @@ public class JsonDecoder {
         throw new JsonException("maximum string-length of <" + JsonDecoder.MAX_STRING_LENGTH + "> reached!");
     }
 
-    protected Object parseNumber(String s)
+    protected static Object parseNumber(String s)
     throws JsonException {
         s = s.trim();
         if(s.isEmpty()) {
@@ -21,8 +21,6 @@
 package moba.server.json;
 
 import java.io.IOException;
-import java.lang.reflect.*;
-import java.util.Locale;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -30,6 +28,30 @@ import moba.server.json.streamwriter.JsonStreamWriterInterface;
 
 public class JsonEncoder {
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Escape-sequence for every ASCII-char, null if the char is written as is. Chars beyond ASCII are always written
+     * as unicode-escape, so the output is plain ASCII.
+     */
+    private static final String[] ESCAPES = new String[0x80];
+
+    static {
+        for(char c = 0; c < ' '; c++) {
+            ESCAPES[c] = "\\u" + new String(new char[]{'0', '0', HEX_DIGITS[c >> 4], HEX_DIGITS[c & 0xF]});
+        }
+        // @formatter:off
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['"']  = "\\\"";
+        ESCAPES['/']  = "\\/";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\t'] = "\\t";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\r'] = "\\r";
+        // @formatter:on
+    }
+
     protected JsonStreamWriterInterface writer;
 
     public JsonEncoder(JsonStreamWriterInterface writer)
@@ -67,93 +89,25 @@ public class JsonEncoder {
 
     protected void addObject(Object object)
     throws IOException, JsonException {
-        writer.write('{');
-
-        Class<?> cls = object.getClass();
-
-        boolean firstIteration = true;
-
-        Method[] methods = cls.getMethods();
-        for(final Method method : methods) {
-            final int modifiers = method.getModifiers();
-
-            if(Modifier.isStatic(modifiers)) {
-                continue;
-            }
-
-            if(method.getParameterTypes().length > 0 || method.getReturnType() == Void.TYPE) {
-                continue;
-            }
-
-            String methodName = method.getName();
-
-            if(methodName.equals("getClass") || methodName.equals("getDeclaringClass")) {
-                continue;
-            }
-
-            String key = "";
-
-            if(methodName.startsWith("get") && methodName.length() > 3) {
-                key = methodName.substring(3);
-            }
-
-            if(methodName.startsWith("is") && methodName.length() > 2) {
-                key = methodName.substring(2);
-            }
-
-            if(key.isEmpty()) {
-                continue;
-            }
-
-            key =
-                key.substring(0, 1).toLowerCase(Locale.ROOT) +
-                key.substring(1);
-
-            if(!firstIteration) {
-                writer.write(',');
-            }
-
-            writer.write('"');
-            writer.write(key);
-            writer.write("\":");
-            try {
-                addJSONValue(method.invoke(object));
-            } catch(IllegalAccessException | InvocationTargetException exception) {
-                throw new JsonException("error in invoking method <" + methodName + ">", exception);
-            }
-            firstIteration = false;
-        }
-        writer.write('}');
+        addPlan(object);
     }
 
     protected void addRecord(Object object)
     throws IOException, JsonException {
-        writer.write('{');
-
-        Class<?> cls = object.getClass();
-
-        RecordComponent[] fields = cls.getRecordComponents();
-
-        boolean firstIteration = true;
+        addPlan(object);
+    }
 
-        for(RecordComponent field : fields) {
+    protected void addPlan(Object object)
+    throws IOException, JsonException {
+        EncodingPlan plan = EncodingPlan.of(object.getClass());
 
-            if(!firstIteration) {
+        writer.write('{');
+        for(int i = 0; i < plan.size(); i++) {
+            if(i > 0) {
                 writer.write(',');
             }
-
-            String key = field.getName();
-
-            writer.write('"');
-            writer.write(key);
-            writer.write("\":");
-
-            try {
-                addJSONValue(field.getAccessor().invoke(object));
-            } catch(IllegalAccessException | InvocationTargetException exception) {
-                throw new JsonException("error in invoking method <" + key + ">", exception);
-            }
-            firstIteration = false;
+            writer.write(plan.getKey(i));
+            addJSONValue(plan.getValue(i, object));
         }
         writer.write('}');
     }
@@ -162,6 +116,8 @@ public class JsonEncoder {
     throws IOException, JsonException {
         if(object == null) {
             addNull();
+        } else if(object instanceof PreEncodedJson preEncoded) {
+            addPreEncoded(preEncoded);
         } else if(object instanceof JsonSerializerInterface<?> jSONToStringI) {
             addJSONValue(jSONToStringI.toJson());
         } else if(object instanceof Map<?, ?> map) {
@@ -191,6 +147,11 @@ public class JsonEncoder {
         }
     }
 
+    protected void addPreEncoded(PreEncodedJson value)
+    throws IOException, JsonException {
+        writer.write(value.getJson());
+    }
+
     protected void addBoolean(boolean value)
     throws IOException {
         if(value) {
@@ -236,33 +197,40 @@ public class JsonEncoder {
         }
 
         writer.write('"');
+        int start = 0;
         for(int i = 0; i < str.length(); i += 1) {
             char c = str.charAt(i);
 
-            switch(c) {
-                case '\\', '"', '/' -> {
-                    writer.write('\\');
-                    writer.write(c);
-                }
-                case '\b' -> writer.write("\\b");
-                case '\t' -> writer.write("\\t");
-                case '\n' -> writer.write("\\n");
-                case '\f' -> writer.write("\\f");
-                case '\r' -> writer.write("\\r");
+            if(c < ESCAPES.length && ESCAPES[c] == null) {
+                continue;
+            }
+            // unveränderte Zeichen am Stück schreiben
+            if(start < i) {
+                writer.write(str, start, i);
+            }
+            start = i + 1;
 
-                default -> {
-                    if(c < ' ' || c >= '\u0080') {
-                        writer.write("\\u");
-                        writer.write(Integer.toHexString(0x10000 | c).substring(1).toUpperCase());
-                    } else {
-                        writer.write(c);
-                    }
-                }
+            if(c < ESCAPES.length) {
+                writer.write(ESCAPES[c]);
+            } else {
+                addUnicodeEscape(c);
             }
         }
+        if(start < str.length()) {
+            writer.write(str, start, str.length());
+        }
         writer.write('"');
     }
 
+    protected void addUnicodeEscape(char c)
+    throws IOException {
+        writer.write("\\u");
+        writer.write(HEX_DIGITS[(c >> 12) & 0xF]);
+        writer.write(HEX_DIGITS[(c >> 8) & 0xF]);
+        writer.write(HEX_DIGITS[(c >> 4) & 0xF]);
+        writer.write(HEX_DIGITS[c & 0xF]);
+    }
+
     protected void addNull()
     throws IOException {
         writer.write("null");
@@ -0,0 +1,254 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import moba.server.json.streamwriter.JsonStreamWriterBytes;
+
+/**
+ * Encodes the same values as JsonEncoder in the binary MessagePack-format (https://msgpack.org), so numbers, booleans
+ * and strings are written without any text-conversion. The type dispatch is inherited from JsonEncoder, merely the
+ * representation of each value differs.
+ */
+public class MsgPackEncoder extends JsonEncoder {
+
+    // @formatter:off
+    private static final int NIL       = 0xC0;
+    private static final int FALSE     = 0xC2;
+    private static final int TRUE      = 0xC3;
+    private static final int FLOAT_32  = 0xCA;
+    private static final int FLOAT_64  = 0xCB;
+    private static final int UINT_8    = 0xCC;
+    private static final int UINT_16   = 0xCD;
+    private static final int UINT_32   = 0xCE;
+    private static final int UINT_64   = 0xCF;
+    private static final int INT_8     = 0xD0;
+    private static final int INT_16    = 0xD1;
+    private static final int INT_32    = 0xD2;
+    private static final int INT_64    = 0xD3;
+    private static final int FIX_STR   = 0xA0;
+    private static final int STR_8     = 0xD9;
+    private static final int STR_16    = 0xDA;
+    private static final int STR_32    = 0xDB;
+    private static final int FIX_ARRAY = 0x90;
+    private static final int ARRAY_16  = 0xDC;
+    private static final int ARRAY_32  = 0xDD;
+    private static final int FIX_MAP   = 0x80;
+    private static final int MAP_16    = 0xDE;
+    private static final int MAP_32    = 0xDF;
+
+    private final JsonStreamWriterBytes out;
+    // @formatter:on
+
+    public MsgPackEncoder(JsonStreamWriterBytes writer)
+    throws IOException {
+        super(writer);
+        this.out = writer;
+    }
+
+    @Override
+    protected void addObject(Map<?, ?> map)
+    throws IOException, JsonException {
+        if(map == null) {
+            addHeader(0, FIX_MAP, 16, MAP_16, MAP_32);
+            return;
+        }
+        addHeader(map.size(), FIX_MAP, 16, MAP_16, MAP_32);
+        for(Map.Entry<?, ?> entry : map.entrySet()) {
+            addString((String)entry.getKey());
+            addJSONValue(entry.getValue());
+        }
+    }
+
+    @Override
+    protected void addPlan(Object object)
+    throws IOException, JsonException {
+        EncodingPlan plan = EncodingPlan.of(object.getClass());
+
+        addHeader(plan.size(), FIX_MAP, 16, MAP_16, MAP_32);
+        for(int i = 0; i < plan.size(); i++) {
+            addString(plan.getField(i));
+            addJSONValue(plan.getValue(i, object));
+        }
+    }
+
+    @Override
+    protected void addPreEncoded(PreEncodedJson value)
+    throws IOException, JsonException {
+        addJSONValue(value.toJson());
+    }
+
+    @Override
+    protected void addBoolean(boolean value) {
+        out.writeByte(value ? TRUE : FALSE);
+    }
+
+    @Override
+    protected void addArray(Iterable<?> array)
+    throws IOException, JsonException {
+        // the header needs the number of items in advance
+        Collection<?> items;
+        if(array instanceof Collection<?> collection) {
+            items = collection;
+        } else {
+            ArrayList<Object> list = new ArrayList<>();
+            array.forEach(list::add);
+            items = list;
+        }
+        addHeader(items.size(), FIX_ARRAY, 16, ARRAY_16, ARRAY_32);
+        for(Object item : items) {
+            addJSONValue(item);
+        }
+    }
+
+    @Override
+    protected void addArray(Object[] array)
+    throws IOException, JsonException {
+        addHeader(array.length, FIX_ARRAY, 16, ARRAY_16, ARRAY_32);
+        for(Object item : array) {
+            addJSONValue(item);
+        }
+    }
+
+    @Override
+    protected void addString(String str) {
+        if(str == null) {
+            str = "";
+        }
+        int length = utf8Length(str);
+        if(length < 32) {
+            out.writeByte(FIX_STR | length);
+        } else if(length < 0x100) {
+            out.writeByte(STR_8);
+            out.writeBytes(length, 1);
+        } else {
+            addHeader(length, -1, 0, STR_16, STR_32);
+        }
+        out.write(str);
+        // unpaired high-surrogate at the end: written as '?', as counted by utf8Length()
+        out.close();
+    }
+
+    @Override
+    protected void addNull() {
+        out.writeByte(NIL);
+    }
+
+    @Override
+    protected void addNumber(Object obj) {
+        if(obj instanceof Double d) {
+            out.writeByte(FLOAT_64);
+            out.writeBytes(Double.doubleToRawLongBits(d), 8);
+        } else if(obj instanceof Float f) {
+            out.writeByte(FLOAT_32);
+            out.writeBytes(Float.floatToRawIntBits(f), 4);
+        } else {
+            addLong(((Number)obj).longValue());
+        }
+    }
+
+    protected void addLong(long value) {
+        if(value >= 0) {
+            if(value < 0x80) {
+                out.writeByte((int)value);
+            } else if(value < 0x100) {
+                out.writeByte(UINT_8);
+                out.writeBytes(value, 1);
+            } else if(value < 0x10000) {
+                out.writeByte(UINT_16);
+                out.writeBytes(value, 2);
+            } else if(value < 0x100000000L) {
+                out.writeByte(UINT_32);
+                out.writeBytes(value, 4);
+            } else {
+                out.writeByte(UINT_64);
+                out.writeBytes(value, 8);
+            }
+            return;
+        }
+        if(value >= -32) {
+            out.writeByte((int)value & 0xFF);
+        } else if(value >= Byte.MIN_VALUE) {
+            out.writeByte(INT_8);
+            out.writeBytes(value, 1);
+        } else if(value >= Short.MIN_VALUE) {
+            out.writeByte(INT_16);
+            out.writeBytes(value, 2);
+        } else if(value >= Integer.MIN_VALUE) {
+            out.writeByte(INT_32);
+            out.writeBytes(value, 4);
+        } else {
+            out.writeByte(INT_64);
+            out.writeBytes(value, 8);
+        }
+    }
+
+    /**
+     * Header of a map, array or string: fix-format for less than fixLimit entries (if any), otherwise the 16- or
+     * 32-bit format.
+     */
+    private void addHeader(int size, int fixFormat, int fixLimit, int format16, int format32) {
+        if(size < fixLimit) {
+            out.writeByte(fixFormat | size);
+        } else if(size < 0x10000) {
+            out.writeByte(format16);
+            out.writeBytes(size, 2);
+        } else {
+            out.writeByte(format32);
+            out.writeBytes(size, 4);
+        }
+    }
+
+    /**
+     * Number of bytes JsonStreamWriterBytes produces for the string; unpaired surrogates become a single '?'.
+     */
+    private static int utf8Length(String str) {
+        int length = str.length();
+        int i = 0;
+        while(i < length && str.charAt(i) < 0x80) {
+            i++;
+        }
+        if(i == length) {
+            return length;
+        }
+        int bytes = i;
+        for(; i < length; i++) {
+            char c = str.charAt(i);
+            if(c < 0x80) {
+                bytes += 1;
+            } else if(c < 0x800) {
+                bytes += 2;
+            } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if(Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
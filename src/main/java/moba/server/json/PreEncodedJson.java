@@ -0,0 +1,61 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.io.IOException;
+
+import moba.server.json.streamwriter.JsonStreamWriterStringBuilder;
+
+/**
+ * Value which is encoded to JSON only once and then inserted as is, e.g. a complete track-layout sent to several
+ * clients. The value itself must not change afterwards. Other encodings (MsgPackEncoder) use the value.
+ */
+public final class PreEncodedJson implements JsonSerializerInterface<Object> {
+
+    // @formatter:off
+    private final Object    value;
+    private volatile String json;
+    // @formatter:on
+
+    public PreEncodedJson(Object value) {
+        this.value = value;
+    }
+
+    @Override
+    public Object toJson() {
+        return value;
+    }
+
+    /**
+     * The encoded value, encoded on first call. Concurrent first calls may encode twice, with the same result.
+     */
+    public String getJson()
+    throws IOException, JsonException {
+        String encoded = json;
+        if(encoded == null) {
+            StringBuilder sb = new StringBuilder();
+            new JsonEncoder(new JsonStreamWriterStringBuilder(sb)).encode(value);
+            encoded = sb.toString();
+            json = encoded;
+        }
+        return encoded;
+    }
+}
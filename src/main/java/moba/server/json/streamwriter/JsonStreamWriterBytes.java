@@ -0,0 +1,173 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json.streamwriter;
+
+import java.util.Arrays;
+
+/**
+ * Encodes straight into a growable byte-buffer (UTF-8) which can be reused for the next message. ASCII, i.e. nearly
+ * every char of the JSON-output, is copied without any encoding-step.
+ */
+public final class JsonStreamWriterBytes implements JsonStreamWriterInterface {
+
+    // @formatter:off
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED     = 64 * 1024;
+
+    private byte[]           buffer           = new byte[INITIAL_CAPACITY];
+    private int              size             = 0;
+    private char             highSurrogate    = 0;
+    // @formatter:on
+
+    /**
+     * Discards the content. A buffer which grew beyond MAX_RETAINED (e.g. by a complete track-layout) is released.
+     */
+    public void reset() {
+        if(buffer.length > MAX_RETAINED) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+        highSurrogate = 0;
+    }
+
+    @Override
+    public void write(char c) {
+        if(c < 0x80 && highSurrogate == 0) {
+            ensureCapacity(1);
+            buffer[size++] = (byte)c;
+            return;
+        }
+        encode(c);
+    }
+
+    @Override
+    public void write(String s) {
+        write(s, 0, s.length());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void write(String s, int start, int end) {
+        ensureCapacity(end - start);
+        int i = start;
+        if(highSurrogate == 0) {
+            while(i < end && s.charAt(i) < 0x80) {
+                i++;
+            }
+            // ASCII-fast-path: reine ASCII-Zeichen 1:1 als Bytes kopieren
+            s.getBytes(start, i, buffer, size);
+            size += i - start;
+        }
+        for(; i < end; i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    /**
+     * Raw byte, bypassing the UTF-8 encoding (used by binary encodings).
+     */
+    public void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte)b;
+    }
+
+    /**
+     * Raw value in big-endian byte-order, e.g. writeBytes(v, 4) for an int.
+     */
+    public void writeBytes(long value, int count) {
+        ensureCapacity(count);
+        for(int i = count - 1; i >= 0; i--) {
+            buffer[size++] = (byte)(value >>> (i * 8));
+        }
+    }
+
+    @Override
+    public void close() {
+        if(highSurrogate != 0) {
+            // unpaired high-surrogate at the end
+            highSurrogate = 0;
+            putReplacement();
+        }
+    }
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void encode(char c) {
+        if(highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if(Character.isLowSurrogate(c)) {
+                putCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            putReplacement();
+        }
+        if(Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+            return;
+        }
+        if(Character.isLowSurrogate(c)) {
+            putReplacement();
+            return;
+        }
+        putCodePoint(c);
+    }
+
+    private void putCodePoint(int cp) {
+        ensureCapacity(4);
+        if(cp < 0x80) {
+            buffer[size++] = (byte)cp;
+        } else if(cp < 0x800) {
+            buffer[size++] = (byte)(0xC0 | (cp >> 6));
+            buffer[size++] = (byte)(0x80 | (cp & 0x3F));
+        } else if(cp < 0x10000) {
+            buffer[size++] = (byte)(0xE0 | (cp >> 12));
+            buffer[size++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+            buffer[size++] = (byte)(0x80 | (cp & 0x3F));
+        } else {
+            buffer[size++] = (byte)(0xF0 | (cp >> 18));
+            buffer[size++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+            buffer[size++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+            buffer[size++] = (byte)(0x80 | (cp & 0x3F));
+        }
+    }
+
+    private void putReplacement() {
+        // same as String.getBytes(UTF_8) for malformed input
+        putCodePoint('?');
+    }
+
+    private void ensureCapacity(int additional) {
+        if(size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
@@ -30,6 +30,11 @@ public interface JsonStreamWriterInterface {
     void write(String s)
     throws IOException;
 
+    default void write(String s, int start, int end)
+    throws IOException {
+        write(s.substring(start, end));
+    }
+
     void close()
     throws IOException;
 }
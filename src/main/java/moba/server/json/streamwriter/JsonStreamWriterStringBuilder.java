@@ -37,6 +37,11 @@ public class JsonStreamWriterStringBuilder implements JsonStreamWriterInterface
         sb.append(s);
     }
 
+    @Override
+    public void write(String s, int start, int end) {
+        sb.append(s, start, end);
+    }
+
     @Override
     public String toString() {
         return sb.toString();
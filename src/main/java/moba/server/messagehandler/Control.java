@@ -21,8 +21,6 @@
 package moba.server.messagehandler;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Map;
 
 import moba.server.apiconnector.ApiConnectorException;
 import moba.server.com.Dispatcher;
@@ -110,12 +108,11 @@ final public class Control extends AbstractMessageHandler {
         dispatcher.sendSingle(new Message(ControlMessage.GET_BLOCK_LIST_RES, blockContactDataMap), msg.getEndpoint());
     }
 
-    @SuppressWarnings("unchecked")
     private void saveBlockList(Message msg)
     throws SQLException, ClientErrorException {
 
-        Map<String, Object> map = (Map<String, Object>)msg.getData();
-        long id = (long)map.get("id");
+        SaveBlockListData data = (SaveBlockListData)msg.getData();
+        long id = data.id();
 
         if(!lock.isLockedByApp(msg.getEndpoint().getAppId(), id)) {
             throw new ClientErrorException(ClientError.DATASET_NOT_LOCKED, "layout <" + id + "> not locked");
@@ -123,22 +120,12 @@ final public class Control extends AbstractMessageHandler {
 
         BlockContactDataMap container = new BlockContactDataMap();
 
-        ArrayList<Object> arrayList = (ArrayList<Object>)map.get("symbols");
-
-        for(Object item : arrayList) {
-            Map<String, Object> symbol = (Map<String, Object>)item;
-
+        for(SaveBlockListData.ContactData contact : data.symbols()) {
             container.put(
-                (long)symbol.get("id"),
+                contact.id(),
                 new BlockContactData(
-                    new PortAddressData(
-                        (int)symbol.get("controllerAddr"),
-                        (int)symbol.get("port")
-                    ),
-                    new PortAddressData(
-                        (int)symbol.get("controllerAddr"),
-                        (int)symbol.get("port")
-                    ),
+                    new PortAddressData(contact.controllerAddr(), contact.port()),
+                    new PortAddressData(contact.controllerAddr(), contact.port()),
                     null
                 )
             );
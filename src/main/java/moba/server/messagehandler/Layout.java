@@ -23,7 +23,7 @@ package moba.server.messagehandler;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import moba.server.com.Dispatcher;
@@ -31,7 +31,12 @@ import moba.server.datatypes.base.DateTime;
 import moba.server.datatypes.collections.LayoutMap;
 import moba.server.datatypes.enumerations.ClientError;
 import moba.server.datatypes.enumerations.ServerState;
+import moba.server.datatypes.objects.GetLayoutChangesData;
+import moba.server.datatypes.objects.LayoutChangesData;
+import moba.server.datatypes.objects.LayoutDeltaData;
+import moba.server.datatypes.objects.LayoutSymbolData;
 import moba.server.datatypes.objects.Position;
+import moba.server.datatypes.objects.SaveTrackLayoutData;
 import moba.server.datatypes.objects.Symbol;
 import moba.server.datatypes.objects.TrackLayoutInfoData;
 import moba.server.datatypes.objects.TrackLayoutSymbolData;
@@ -41,12 +46,14 @@ import moba.server.messages.Message;
 import moba.server.messages.messagetypes.LayoutMessage;
 import moba.server.repositories.TrackLayoutRepository;
 import moba.server.utilities.layout.ActiveTrackLayout;
+import moba.server.utilities.layout.LayoutCache;
 import moba.server.utilities.layout.TrackLayoutLock;
 
 public final class Layout extends AbstractMessageHandler {
 
     // @formatter:off
     private final TrackLayoutRepository repository;
+    private final LayoutCache           cache;
 
     private final TrackLayoutLock       lock;
     private final ActiveTrackLayout     activeLayout;
@@ -56,12 +63,14 @@ public final class Layout extends AbstractMessageHandler {
     public Layout(
         Dispatcher dispatcher,
         TrackLayoutRepository repository,
+        LayoutCache cache,
         ActiveTrackLayout activeLayout,
         TrackLayoutLock lock
     ) throws SQLException {
         // @formatter:off
         this.dispatcher   = dispatcher;
         this.repository   = repository;
+        this.cache        = cache;
 
         this.activeLayout = activeLayout;
         this.lock         = lock;
@@ -105,6 +114,7 @@ public final class Layout extends AbstractMessageHandler {
             case UNLOCK_LAYOUT            -> unlockLayout(msg);
             case LOCK_LAYOUT              -> lockLayout(msg);
             case SAVE_LAYOUT              -> saveLayout(msg);
+            case GET_LAYOUT_CHANGES_REQ   -> getLayoutChanges(msg);
             // @formatter:on
         }
     }
@@ -127,6 +137,7 @@ public final class Layout extends AbstractMessageHandler {
             );
         }
         repository.deleteLayout(id, msg.getEndpoint().getAppId());
+        cache.remove(id);
         if(id == activeLayout.getActiveLayout()) {
             activeLayout.setActiveLayout(0);
         }
@@ -206,19 +217,38 @@ public final class Layout extends AbstractMessageHandler {
             lock.tryLock(msg.getEndpoint().getAppId(), id);
         }
 
-        HashMap<String, Object> map = new HashMap<>();
-        map.put("id", id);
-        map.put("symbols", repository.getLayout(id));
+        sendLayout(msg, id);
+    }
 
-        dispatcher.sendSingle(new Message(LayoutMessage.GET_LAYOUT_RES, map), msg.getEndpoint());
+    private void getLayoutChanges(Message msg)
+    throws SQLException, ClientErrorException {
+        GetLayoutChangesData data = (GetLayoutChangesData)msg.getData();
+        long id = activeLayout.getActiveLayout(data.id());
+
+        List<LayoutDeltaData> changes = cache.getChangesSince(id, data.revision(), repository::getLayout);
+        if(changes == null) {
+            // Revision unbekannt: komplettes Layout inklusive aktueller Revision
+            sendLayout(msg, id);
+            return;
+        }
+        long revision = changes.isEmpty() ? data.revision() : changes.getLast().revision();
+        dispatcher.sendSingle(
+            new Message(LayoutMessage.GET_LAYOUT_CHANGES_RES, new LayoutChangesData(id, revision, changes)),
+            msg.getEndpoint()
+        );
+    }
+
+    private void sendLayout(Message msg, long id)
+    throws SQLException {
+        LayoutCache.Snapshot snapshot = cache.get(id, repository::getLayout);
+        dispatcher.sendSingle(new Message(LayoutMessage.GET_LAYOUT_RES, snapshot.payload()), msg.getEndpoint());
     }
 
-    @SuppressWarnings("unchecked")
     private void saveLayout(Message msg)
     throws SQLException, ClientErrorException {
 
-        Map<String, Object> map = (Map<String, Object>)msg.getData();
-        long id = activeLayout.getActiveLayout((Long)map.get("id"));
+        SaveTrackLayoutData data = (SaveTrackLayoutData)msg.getData();
+        long id = activeLayout.getActiveLayout(data.id());
 
         if(!lock.isLockedByApp(msg.getEndpoint().getAppId(), id)) {
             throw new ClientErrorException(ClientError.DATASET_NOT_LOCKED, "layout <" + id + "> not locked");
@@ -226,25 +256,19 @@ public final class Layout extends AbstractMessageHandler {
 
         LayoutMap container = new LayoutMap();
 
-        ArrayList<Object> arrayList = (ArrayList<Object>)map.get("symbols");
-
-        for(Object item : arrayList) {
-            Map<String, Object> symbol = (Map<String, Object>)item;
-
+        for(LayoutSymbolData symbol : data.symbols()) {
             container.put(
-                new Position(
-                    (long)symbol.get("xPos"),
-                    (long)symbol.get("yPos")
-                ),
-                new TrackLayoutSymbolData(
-                    (Long)symbol.get("id"),
-                    new Symbol((int)symbol.get("symbol"))
-                )
+                new Position(symbol.xPos(), symbol.yPos()),
+                new TrackLayoutSymbolData(symbol.id(), new Symbol(symbol.symbol()))
             );
         }
 
+        // vorherige Revision muss vor dem Speichern geladen sein
+        cache.get(id, repository::getLayout);
         repository.saveLayout(id, container);
 
-        dispatcher.sendGroup(new Message(LayoutMessage.LAYOUT_CHANGED, id));
+        // neu eingefügte Symbole erhalten ihre Id erst von der Datenbank
+        LayoutDeltaData delta = cache.append(id, repository.getLayout(id));
+        dispatcher.sendGroup(new Message(LayoutMessage.LAYOUT_DELTA, delta));
     }
 }
@@ -0,0 +1,192 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import moba.server.com.Dispatcher;
+import moba.server.datatypes.enumerations.ClientError;
+import moba.server.datatypes.enumerations.ServerState;
+import moba.server.datatypes.objects.ErrorData;
+import moba.server.exceptions.ClientErrorException;
+import moba.server.messages.messagetypes.ClientMessage;
+import moba.server.utilities.ExecutionMode;
+
+/**
+ * Serial executor for handler-groups which don't share state with the interlocking. All handlers bound to the same
+ * lane run one after another on the lane-thread, so the order within a group is kept. The MessageLoop itself only
+ * hands the message over and continues with the next one.
+ */
+final class HandlerLane {
+
+    private static final int QUIESCE_TIMEOUT = 5000;
+
+    // @formatter:off
+    private final String             name;
+    private final MessageLoop        loop;
+    private final Dispatcher         dispatcher;
+    private final ThreadPoolExecutor executor;
+    private volatile boolean         failed = false;
+    // @formatter:on
+
+    @FunctionalInterface
+    private interface Task {
+        void run()
+        throws Exception;
+    }
+
+    HandlerLane(String name, MessageLoop loop, Dispatcher dispatcher, ExecutionMode executionMode) {
+        // @formatter:off
+        this.name       = name;
+        this.loop       = loop;
+        this.dispatcher = dispatcher;
+        // @formatter:on
+        this.executor = new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            executionMode.getThreadFactory("lane-" + name)
+        );
+    }
+
+    AbstractMessageHandler bind(AbstractMessageHandler handler) {
+        return new AbstractMessageHandler() {
+            @Override
+            public void handleMsg(Message msg) {
+                submit(msg, () -> handler.handleMsg(msg));
+            }
+
+            @Override
+            public void freeResources(long appId) {
+                submit(null, () -> handler.freeResources(appId));
+            }
+
+            @Override
+            public int getGroupId() {
+                return handler.getGroupId();
+            }
+
+            @Override
+            public void reset() {
+                submit(null, handler::reset);
+            }
+
+            @Override
+            public void serverStateChanged(ServerState state) {
+                submit(null, () -> handler.serverStateChanged(state));
+            }
+        };
+    }
+
+    /**
+     * Processes the pending tasks in order and waits for them to finish. Messages still pending after QUIESCE_TIMEOUT
+     * are dropped and answered with ClientMessage.ERROR. Afterward, every task is executed directly on the calling
+     * thread, so a following reset() of the handlers can't overlap with a message still in progress.
+     */
+    void quiesce()
+    throws InterruptedException {
+        if(executor.isShutdown()) {
+            return;
+        }
+        executor.shutdown();
+        if(executor.awaitTermination(QUIESCE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            return;
+        }
+        List<Runnable> pending = executor.shutdownNow();
+        int dropped = 0;
+        for(Runnable runnable : pending) {
+            Message msg = ((Pending)runnable).msg;
+            if(msg != null) {
+                reject(msg);
+                dropped++;
+            }
+        }
+        loop.handleDroppedMessages(name, dropped);
+    }
+
+    private void submit(Message msg, Task task) {
+        if(executor.isShutdown()) {
+            run(msg, task);
+            return;
+        }
+        executor.execute(new Pending(msg, task));
+    }
+
+    private void run(Message msg, Task task) {
+        if(failed) {
+            // the server restarts anyway, but the client still gets an answer
+            if(msg != null) {
+                reject(msg);
+            }
+            return;
+        }
+        dispatcher.beginBatch();
+        try {
+            task.run();
+        } catch(ClientErrorException e) {
+            if(msg == null) {
+                fail(null, e);
+                return;
+            }
+            loop.handleClientError(msg, e);
+        } catch(Throwable e) {
+            fail(msg, e);
+        } finally {
+            dispatcher.flush();
+        }
+    }
+
+    private void reject(Message msg) {
+        dispatcher.sendSingle(
+            new Message(
+                ClientMessage.ERROR,
+                new ErrorData(ClientError.OPERATION_NOT_ALLOWED, "message dropped due to a server reset")
+            ),
+            msg.getEndpoint()
+        );
+    }
+
+    private void fail(Message msg, Throwable e) {
+        // Der Zustand des Handlers ist unbekannt: keine weiteren Tasks mehr, die MessageLoop startet neu
+        failed = true;
+        loop.handleLaneFailure(msg, e);
+    }
+
+    private final class Pending implements Runnable {
+        private final Message msg;
+        private final Task    task;
+
+        private Pending(Message msg, Task task) {
+            this.msg  = msg;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            HandlerLane.this.run(msg, task);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import moba.server.datatypes.objects.LatencyData;
+
+/**
+ * Records the latency of safety-messages from reading them from the socket until their handler has completed. Keeps
+ * the last SAMPLE_SIZE samples for percentiles and counts all violations of the service-level objective.
+ */
+final public class LatencyMonitor {
+    // @formatter:off
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final long[]     samples     = new long[SAMPLE_SIZE];
+    private final long       sloNanos;
+
+    private long             count       = 0;
+    private long             violations  = 0;
+    private long             max         = 0;
+    // @formatter:on
+
+    public LatencyMonitor(long sloMillis) {
+        this.sloNanos = TimeUnit.MILLISECONDS.toNanos(sloMillis);
+    }
+
+    /**
+     * Returns true if the latency exceeds the service-level objective.
+     */
+    public synchronized boolean record(long latencyNanos) {
+        samples[(int)(count % SAMPLE_SIZE)] = latencyNanos;
+        count++;
+        max = Math.max(max, latencyNanos);
+
+        if(latencyNanos <= sloNanos) {
+            return false;
+        }
+        violations++;
+        return true;
+    }
+
+    public synchronized LatencyData getStatistics() {
+        int size = (int)Math.min(count, SAMPLE_SIZE);
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+
+        return new LatencyData(
+            count,
+            violations,
+            toMillis(sloNanos),
+            toMillis(percentile(sorted, 0.50)),
+            toMillis(percentile(sorted, 0.99)),
+            toMillis(max)
+        );
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if(sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int)Math.ceil(p * sorted.length) - 1];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
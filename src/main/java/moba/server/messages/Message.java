@@ -20,11 +20,19 @@
 
 package moba.server.messages;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import moba.server.com.Endpoint;
 
 public class Message implements Comparable<Message> {
     // @formatter:off
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     protected long   trigger;
+    protected long   sequence;
+    protected long   receivedAt;
+
+    protected MessagePriority priority;
 
     protected Endpoint    endpoint = null;
     protected Object      data     = null;
@@ -53,6 +61,7 @@ public class Message implements Comparable<Message> {
     public Message(int grpId, int msgId, Object data) {
         this(grpId, msgId);
         this.data = data;
+        this.priority = MessagePriority.of(grpId, msgId, data);
     }
 
     public Message(int grpId, int msgId) {
@@ -63,16 +72,42 @@ public class Message implements Comparable<Message> {
         groupId = grpId;
         messageId = msgId;
         trigger = System.currentTimeMillis();
+        sequence = SEQUENCE.getAndIncrement();
+        receivedAt = System.nanoTime();
+        priority = MessagePriority.of(grpId, msgId);
     }
 
     @Override
     public int compareTo(Message m) {
+        if(priority != m.priority) {
+            return priority.compareTo(m.priority);
+        }
+
         long i = trigger;
         long j = m.trigger;
 
+        if(i == j) {
+            // same millisecond: keep the order of creation
+            return Long.compare(sequence, m.sequence);
+        }
         return Long.compare(i, j);
     }
 
+    public MessagePriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Point in time (System.nanoTime()) the message has been read from the socket
+     */
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(long receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
     public Endpoint getEndpoint() {
         return endpoint;
     }
@@ -20,6 +20,7 @@
 
 package moba.server.messages;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,46 +33,104 @@ import moba.server.datatypes.objects.NotificationData;
 import moba.server.messages.messagetypes.ClientMessage;
 import moba.server.messages.messagetypes.InternMessage;
 import moba.server.exceptions.ClientErrorException;
+import moba.server.utilities.ExecutionMode;
 import moba.server.utilities.messaging.NotificationHandler;
 
 final public class MessageLoop {
 
+    public enum LoopMode {
+        SINGLE,
+        SHARDED
+    }
+
     private final ServerStateMachine stateMachine;
 
     // @formatter:off
-    private final Map<Integer, AbstractMessageHandler> handlers   = new HashMap<>();
+    private final Map<String, HandlerLane>             lanes      = new HashMap<>();
     private final Dispatcher                           dispatcher;
     private final NotificationHandler                  notificationHandler;
+    private final LatencyMonitor                       safetyLatency;
+    private final LoopMode                             loopMode;
+    private final ExecutionMode                        executionMode;
+    private volatile MessageQueue                      in;
+    private AbstractMessageHandler[]                   handlers   = new AbstractMessageHandler[0];
     // @formatter:on
 
-    public MessageLoop(Dispatcher dispatcher, NotificationHandler notificationHandler, ServerStateMachine stateMachine) {
+    public MessageLoop(
+        Dispatcher dispatcher,
+        NotificationHandler notificationHandler,
+        ServerStateMachine stateMachine,
+        LatencyMonitor safetyLatency,
+        LoopMode loopMode,
+        ExecutionMode executionMode
+    ) {
         // @formatter:off
         this.dispatcher          = dispatcher;
         this.notificationHandler = notificationHandler;
         this.stateMachine        = stateMachine;
+        this.safetyLatency       = safetyLatency;
+        this.loopMode            = loopMode;
+        this.executionMode       = executionMode;
         // @formatter:on
     }
 
     public void addHandler(AbstractMessageHandler msgHandler) {
-        handlers.put(msgHandler.getGroupId(), msgHandler);
+        // Dichte Tabelle über die Group-Id: kein Boxing und kein Hashing je eingehender Nachricht
+        int groupId = msgHandler.getGroupId();
+        if(groupId >= handlers.length) {
+            handlers = Arrays.copyOf(handlers, groupId + 1);
+        }
+        handlers[groupId] = msgHandler;
         stateMachine.addHandler(msgHandler);
     }
 
+    /**
+     * In LoopMode.SHARDED the handler runs on the serial lane with the given name, otherwise on the loop-thread.
+     * Handlers which share state must share a lane (or stay on the loop-thread).
+     */
+    public void addHandler(AbstractMessageHandler msgHandler, String lane) {
+        if(loopMode == LoopMode.SHARDED) {
+            msgHandler = lanes.computeIfAbsent(
+                lane,
+                k -> new HandlerLane(k, this, dispatcher, executionMode)
+            ).bind(msgHandler);
+        }
+        addHandler(msgHandler);
+    }
+
+    /**
+     * Processes the inbound messages one by one. The queue hands them out strictly by MessagePriority, so safety
+     * messages overtake any backlog of normal or bulk traffic. In LoopMode.SHARDED the messages of lane-bound handlers
+     * are only handed over to their lane; all lanes are quiesced before the loop returns.
+     */
     public boolean loop(MessageQueue in)
+    throws InterruptedException {
+        this.in = in;
+        try {
+            return process(in);
+        } finally {
+            quiesceLanes();
+        }
+    }
+
+    private boolean process(MessageQueue in)
     throws InterruptedException {
         while(true) {
             Message msg = in.take();
+            dispatcher.beginBatch();
             try {
                 if(msg.getGroupId() == InternMessage.GROUP_ID) {
                     switch(InternMessage.fromId(msg.getMessageId())) {
                         case SERVER_RESET -> {
                             in.clear();
+                            quiesceLanes();
                             stateMachine.handleServerReset();
                             return true;
                         }
 
                         case SERVER_SHUTDOWN -> {
                             in.clear();
+                            quiesceLanes();
                             stateMachine.handleServerShutdown();
                             return false;
                         }
@@ -80,35 +139,119 @@ final public class MessageLoop {
                             stateMachine.handleRemoveClient(msg);
                             continue;
                         }
+
+                        case HANDLER_FAILED -> {
+                            addRestartNotification();
+                            in.clear();
+                            return true;
+                        }
                     }
                 }
 
-                checkGroup(msg.getGroupId());
-                handlers.get(msg.getGroupId()).handleMsg(msg);
-            } catch(ClientErrorException e) {
-                ClientError id = e.getErrorId();
                 Endpoint ep = msg.getEndpoint();
-                dispatcher.sendSingle(new Message(ClientMessage.ERROR, new ErrorData(id, e.getMessage())), ep);
-                notificationHandler.add(new NotificationData(NotificationType.CLIENT_ERROR, e, ep));
+                if(ep != null && ep.isRemoved()) {
+                    // the client has been removed meanwhile (CRITICAL REMOVE_CLIENT overtakes its messages)
+                    continue;
+                }
+                if(msg.getData() instanceof ClientErrorException e) {
+                    // payload rejected by the endpoint's decoder
+                    throw e;
+                }
+
+                getHandler(msg.getGroupId()).handleMsg(msg);
+            } catch(ClientErrorException e) {
+                handleClientError(msg, e);
             } catch(Throwable e) {
                 notificationHandler.add(new NotificationData(NotificationType.EXCEPTION, e, msg.getEndpoint()));
-                notificationHandler.add(new NotificationData(
-                    NotificationLevel.CRITICAL,
-                    NotificationType.SERVER_NOTICE,
-                    "Restart of the server (reset)",
-                    "Restart of the server application due to an error",
-                    "MessageLoop.loop()")
-                );
+                addRestartNotification();
                 in.clear();
                 return true;
+            } finally {
+                if(msg.getPriority() == MessagePriority.SAFETY) {
+                    recordLatency(msg);
+                }
+                dispatcher.flush();
             }
         }
     }
 
-    private void checkGroup(int groupId)
+    void handleClientError(Message msg, ClientErrorException e) {
+        ClientError id = e.getErrorId();
+        Endpoint ep = msg.getEndpoint();
+        dispatcher.sendSingle(new Message(ClientMessage.ERROR, new ErrorData(id, e.getMessage())), ep);
+        notificationHandler.add(new NotificationData(NotificationType.CLIENT_ERROR, e, ep));
+    }
+
+    /**
+     * Called from a lane-thread: The failure is reported back to the loop-thread, which restarts the server just like
+     * on an error within the loop itself.
+     */
+    void handleLaneFailure(Message msg, Throwable e) {
+        notificationHandler.add(new NotificationData(
+            NotificationType.EXCEPTION,
+            e,
+            msg == null ? null : msg.getEndpoint()
+        ));
+        MessageQueue queue = in;
+        if(queue != null) {
+            queue.add(new Message(InternMessage.HANDLER_FAILED));
+        }
+    }
+
+    void handleDroppedMessages(String lane, int count) {
+        if(count == 0) {
+            return;
+        }
+        notificationHandler.add(new NotificationData(
+            NotificationLevel.WARNING,
+            NotificationType.SERVER_NOTICE,
+            "Messages dropped",
+            String.format("%d message(s) of lane <%s> dropped due to a server reset", count, lane),
+            "MessageLoop.loop()"
+        ));
+    }
+
+    private void quiesceLanes()
+    throws InterruptedException {
+        // Die Loop wird ohnehin beendet, Fehler der Lanes lösen keinen weiteren Neustart aus
+        in = null;
+        for(HandlerLane lane : lanes.values()) {
+            lane.quiesce();
+        }
+    }
+
+    private void addRestartNotification() {
+        notificationHandler.add(new NotificationData(
+            NotificationLevel.CRITICAL,
+            NotificationType.SERVER_NOTICE,
+            "Restart of the server (reset)",
+            "Restart of the server application due to an error",
+            "MessageLoop.loop()")
+        );
+    }
+
+    private void recordLatency(Message msg) {
+        long latency = System.nanoTime() - msg.getReceivedAt();
+        if(!safetyLatency.record(latency)) {
+            return;
+        }
+        notificationHandler.add(new NotificationData(
+            NotificationLevel.WARNING,
+            NotificationType.SERVER_NOTICE,
+            "Safety latency exceeded",
+            String.format(
+                "Safety-message %s took %.1f ms (SLO %.1f ms)",
+                msg, latency / 1_000_000.0, safetyLatency.getStatistics().sloMillis()
+            ),
+            "MessageLoop.loop()"
+        ));
+    }
+
+    private AbstractMessageHandler getHandler(int groupId)
     throws ClientErrorException {
-        if(!handlers.containsKey(groupId)) {
+        if(groupId < 0 || groupId >= handlers.length || handlers[groupId] == null) {
             throw new ClientErrorException(ClientError.UNKNOWN_GROUP_ID, "no handler for group <" + groupId + ">!");
         }
+        return handlers[groupId];
     }
 }
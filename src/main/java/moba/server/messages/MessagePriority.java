@@ -0,0 +1,83 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import moba.server.datatypes.enumerations.NotificationLevel;
+import moba.server.datatypes.objects.NotificationData;
+import moba.server.messages.messagetypes.*;
+
+/**
+ * Message-classes for the inbound queue. The message-loop strictly serves SAFETY before NORMAL before BULK, within a
+ * class the order of arrival is kept. Messages affecting the same state (e.g. trigger and release of the emergency
+ * stop) have to be in the same class, otherwise a later message could overtake an earlier one.
+ *
+ * A client removed with level CRITICAL triggers an emergency stop, this removal is a SAFETY-message. Messages of that
+ * client still queued in a lower class are discarded by the message-loop once the client has been removed.
+ */
+public enum MessagePriority {
+    SAFETY,  // Nothalt, Verbindungsverlust zur Hardware, Server-Reset / -Shutdown
+    NORMAL,
+    BULK;    // Layout-Editor, Messaging, Entfernen von Clients ohne Fehler
+
+    public static MessagePriority of(int groupId, int msgId) {
+        return of(groupId, msgId, null);
+    }
+
+    public static MessagePriority of(int groupId, int msgId, Object data) {
+        return switch(groupId) {
+            case InternMessage.GROUP_ID -> {
+                // a regular REMOVE_CLIENT must never overtake any message of the very same client
+                if(msgId == InternMessage.REMOVE_CLIENT.getMessageId() && !isCritical(data)) {
+                    yield BULK;
+                }
+                yield SAFETY;
+            }
+
+            case SystemMessage.GROUP_ID -> {
+                if(
+                    msgId == SystemMessage.TRIGGER_EMERGENCY_STOP.getMessageId() ||
+                    msgId == SystemMessage.RELEASE_EMERGENCY_STOP.getMessageId()
+                ) {
+                    yield SAFETY;
+                }
+                yield NORMAL;
+            }
+
+            case InterfaceMessage.GROUP_ID -> {
+                if(
+                    msgId == InterfaceMessage.CONNECTION_LOST.getMessageId() ||
+                    msgId == InterfaceMessage.CONNECTED.getMessageId()
+                ) {
+                    yield SAFETY;
+                }
+                yield NORMAL;
+            }
+
+            case LayoutMessage.GROUP_ID, MessagingMessage.GROUP_ID -> BULK;
+
+            default -> NORMAL;
+        };
+    }
+
+    private static boolean isCritical(Object data) {
+        return data instanceof NotificationData notification && notification.getLevel() == NotificationLevel.CRITICAL;
+    }
+}
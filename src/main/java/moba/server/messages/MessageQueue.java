@@ -20,12 +20,18 @@
 
 package moba.server.messages;
 
-import java.util.concurrent.PriorityBlockingQueue;
-
 import moba.server.messages.messagetypes.InternMessage;
 import moba.server.utilities.logger.MessageLogger;
 
-public class MessageQueue extends PriorityBlockingQueue<Message> {
+/**
+ * Inbound queue of the message-loop: many producers (endpoints, ipc, scheduler, ...), one consumer (the loop).
+ */
+abstract public class MessageQueue {
+
+    public enum QueueType {
+        PRIORITY_QUEUE,
+        RING_BUFFER
+    }
 
     protected MessageLogger logger;
 
@@ -33,7 +39,6 @@ public class MessageQueue extends PriorityBlockingQueue<Message> {
         this.logger = logger;
     }
 
-    @Override
     public boolean add(Message msg) {
         if(msg.getGroupId() == InternMessage.GROUP_ID) {
             logger.intern(msg);
@@ -41,6 +46,14 @@ public class MessageQueue extends PriorityBlockingQueue<Message> {
             logger.in(msg);
         }
 
-        return super.add(msg);
+        enqueue(msg);
+        return true;
     }
+
+    abstract public Message take()
+    throws InterruptedException;
+
+    abstract public void clear();
+
+    abstract protected void enqueue(Message msg);
 }
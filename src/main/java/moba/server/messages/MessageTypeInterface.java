@@ -20,9 +20,42 @@
 
 package moba.server.messages;
 
+import java.util.Arrays;
+
 public interface MessageTypeInterface {
 
     int getMessageId();
 
     int getGroupId();
+
+    /**
+     * Record-type the payload of inbound messages is decoded into, null for the generic map / list tree.
+     */
+    default Class<?> getDataType() {
+        return null;
+    }
+
+    /**
+     * Builds a dense table of the given message-types indexed by their message-id. Built once per enum, so fromId()
+     * neither scans nor clones values() for every inbound message.
+     */
+    static <T extends MessageTypeInterface> T[] indexById(T[] types) {
+        int size = 0;
+        for(T type : types) {
+            size = Math.max(size, type.getMessageId() + 1);
+        }
+        T[] table = Arrays.copyOf(types, size);
+        Arrays.fill(table, null);
+        for(T type : types) {
+            table[type.getMessageId()] = type;
+        }
+        return table;
+    }
+
+    static <T extends MessageTypeInterface> T lookup(T[] table, int id) {
+        if(id < 0 || id >= table.length) {
+            return null;
+        }
+        return table[id];
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import moba.server.datatypes.enumerations.ClientError;
+import moba.server.exceptions.ClientErrorException;
+import moba.server.messages.messagetypes.*;
+
+final public class MessageTypes {
+
+    private MessageTypes() {
+    }
+
+    public static MessageTypeInterface fromId(int groupId, int msgId)
+    throws ClientErrorException {
+        return switch(groupId) {
+            // @formatter:off
+            case InternMessage.GROUP_ID      -> InternMessage.fromId(msgId);
+            case ClientMessage.GROUP_ID      -> ClientMessage.fromId(msgId);
+            case ServerMessage.GROUP_ID      -> ServerMessage.fromId(msgId);
+            case TimerMessage.GROUP_ID       -> TimerMessage.fromId(msgId);
+            case EnvironmentMessage.GROUP_ID -> EnvironmentMessage.fromId(msgId);
+            case InterfaceMessage.GROUP_ID   -> InterfaceMessage.fromId(msgId);
+            case SystemMessage.GROUP_ID      -> SystemMessage.fromId(msgId);
+            case LayoutMessage.GROUP_ID      -> LayoutMessage.fromId(msgId);
+            case MessagingMessage.GROUP_ID   -> MessagingMessage.fromId(msgId);
+            case ControlMessage.GROUP_ID     -> ControlMessage.fromId(msgId);
+            // @formatter:on
+            default -> throw new ClientErrorException(
+                ClientError.UNKNOWN_GROUP_ID,
+                "unknown group <" + groupId + ">"
+            );
+        };
+    }
+
+    /**
+     * Record-type for the payload of the given message, null if decoded generically. Unknown ids are not reported
+     * here but by the message-loop, just like before.
+     */
+    public static Class<?> getDataType(int groupId, int msgId) {
+        try {
+            return fromId(groupId, msgId).getDataType();
+        } catch(ClientErrorException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import java.util.concurrent.PriorityBlockingQueue;
+
+import moba.server.utilities.logger.MessageLogger;
+
+/**
+ * Queue ordered by priority and within the same priority by the time of creation (see Message.compareTo).
+ */
+final public class PriorityMessageQueue extends MessageQueue {
+
+    private final PriorityBlockingQueue<Message> queue = new PriorityBlockingQueue<>();
+
+    public PriorityMessageQueue(MessageLogger logger) {
+        super(logger);
+    }
+
+    @Override
+    public Message take()
+    throws InterruptedException {
+        return queue.take();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @Override
+    protected void enqueue(Message msg) {
+        queue.add(msg);
+    }
+}
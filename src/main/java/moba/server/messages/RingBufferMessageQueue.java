@@ -0,0 +1,222 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import moba.server.utilities.logger.MessageLogger;
+
+/**
+ * Lock-free multi-producer / single-consumer queue based on preallocated ring-buffers, one lane per MessagePriority.
+ * Lanes are served strictly by priority, within a lane messages are delivered exactly in the order they have been
+ * added.
+ *
+ * Producers wait while their lane is full. The consumer can't wait for itself, messages it adds to a full lane (e.g.
+ * REMOVE_CLIENT posted by an endpoint evicted from the loop) go to an unbounded overflow of that lane instead and are
+ * delivered right after the messages that have been in the ring-buffer at that time.
+ */
+final public class RingBufferMessageQueue extends MessageQueue {
+
+    public enum WaitStrategy {
+        SPIN,   // niedrigste Latenz, belegt aber dauerhaft einen Kern
+        YIELD,  // gibt den Kern an andere Threads ab
+        PARK    // Consumer schläft, bis ein Producer ihn weckt
+    }
+
+    // @formatter:off
+    private static final int    SAFETY_LANE_SIZE = 64;
+    private static final int    SPIN_TRIES       = 100;
+
+    private final Lane[]        lanes;
+    private final WaitStrategy  waitStrategy;
+
+    private volatile Thread     consumer = null;
+    private volatile Thread     parked   = null;
+    // @formatter:on
+
+    public RingBufferMessageQueue(MessageLogger logger, int capacity, WaitStrategy waitStrategy) {
+        super(logger);
+        // @formatter:off
+        this.lanes        = new Lane[MessagePriority.values().length];
+        this.waitStrategy = waitStrategy;
+        // @formatter:on
+
+        for(MessagePriority priority : MessagePriority.values()) {
+            lanes[priority.ordinal()] = new Lane(priority == MessagePriority.SAFETY ? SAFETY_LANE_SIZE : capacity);
+        }
+    }
+
+    @Override
+    public Message take()
+    throws InterruptedException {
+        Thread current = Thread.currentThread();
+        if(consumer != current) {
+            consumer = current;
+        }
+
+        int idle = 0;
+        while(true) {
+            Message msg = poll();
+            if(msg != null) {
+                return msg;
+            }
+            if(Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            switch(waitStrategy) {
+                case SPIN -> Thread.onSpinWait();
+                case YIELD -> Thread.yield();
+                case PARK -> {
+                    if(++idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    parked = current;
+                    // a producer might have added a message before it could see us parked
+                    msg = poll();
+                    if(msg != null) {
+                        parked = null;
+                        return msg;
+                    }
+                    LockSupport.park(this);
+                    parked = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        while(poll() != null) {
+            // discard
+        }
+    }
+
+    @Override
+    protected void enqueue(Message msg) {
+        Lane lane = lanes[msg.getPriority().ordinal()];
+        if(Thread.currentThread() == consumer) {
+            // the consumer itself would wait forever
+            if(lane.hasOverflow() || !lane.offer(msg)) {
+                lane.defer(msg);
+            }
+            return;
+        }
+        while(!lane.offer(msg)) {
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        Thread waiting = parked;
+        if(waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    private Message poll() {
+        for(Lane lane : lanes) {
+            Message msg = lane.poll();
+            if(msg != null) {
+                return msg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bounded MPSC ring-buffer. Each slot carries a sequence number: a producer may only fill slot i if its sequence
+     * equals the claimed position, the consumer may only read it if the sequence equals position + 1.
+     * The overflow is only used by the consumer, it is delivered as soon as the ring-buffer has been read up to
+     * overflowAt.
+     */
+    private static final class Lane {
+        // @formatter:off
+        private final AtomicReferenceArray<Message> slots;
+        private final AtomicLongArray               sequences;
+        private final int                           mask;
+
+        private final AtomicLong                    tail = new AtomicLong();
+        private long                                head = 0; // nur vom Consumer verwendet
+
+        private final ArrayDeque<Message>           overflow   = new ArrayDeque<>(); // nur vom Consumer verwendet
+        private long                                overflowAt = 0;
+        // @formatter:on
+
+        Lane(int capacity) {
+            int size = 1;
+            while(size < capacity) {
+                size <<= 1;
+            }
+            mask = size - 1;
+            slots = new AtomicReferenceArray<>(size);
+            sequences = new AtomicLongArray(size);
+            for(int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(Message msg) {
+            while(true) {
+                long pos = tail.get();
+                int idx = (int)(pos & mask);
+                long diff = sequences.get(idx) - pos;
+
+                if(diff < 0) {
+                    return false;
+                }
+                if(diff == 0 && tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(idx, msg);
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+            }
+        }
+
+        boolean hasOverflow() {
+            return !overflow.isEmpty();
+        }
+
+        void defer(Message msg) {
+            if(overflow.isEmpty()) {
+                overflowAt = tail.get();
+            }
+            overflow.add(msg);
+        }
+
+        Message poll() {
+            if(head == overflowAt && !overflow.isEmpty()) {
+                return overflow.poll();
+            }
+            int idx = (int)(head & mask);
+            if(sequences.get(idx) != head + 1) {
+                return null;
+            }
+            Message msg = slots.get(idx);
+            slots.lazySet(idx, null);
+            sequences.set(idx, head + mask + 1);
+            head++;
+            return msg;
+        }
+    }
+}
@@ -40,6 +40,8 @@ public enum ClientMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 2;
 
+    private static final ClientMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     ClientMessage(int msgId) {
@@ -58,10 +60,9 @@ public enum ClientMessage implements MessageTypeInterface {
 
     public static ClientMessage fromId(int id)
     throws ClientErrorException {
-        for(ClientMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        ClientMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
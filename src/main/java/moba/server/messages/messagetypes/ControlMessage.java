@@ -21,6 +21,7 @@
 package moba.server.messages.messagetypes;
 
 import moba.server.datatypes.enumerations.ClientError;
+import moba.server.datatypes.objects.SaveBlockListData;
 import moba.server.messages.MessageTypeInterface;
 import moba.server.exceptions.ClientErrorException;
 
@@ -28,7 +29,7 @@ public enum ControlMessage implements MessageTypeInterface {
     // @formatter:off
     GET_BLOCK_LIST_REQ        (1),
     GET_BLOCK_LIST_RES        (2),
-    SAVE_BLOCK_LIST           (3),
+    SAVE_BLOCK_LIST           (3, SaveBlockListData.class),
     GET_SWITCH_STAND_LIST_REQ (4),
     GET_SWITCH_STAND_LIST_RES (5),
     // SAVE_SWITCH_STAND_LIST    (6),
@@ -40,10 +41,18 @@ public enum ControlMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 10;
 
+    private static final ControlMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
+    private final Class<?> dataType;
 
     ControlMessage(int msgId) {
-        messageId = msgId;
+        this(msgId, null);
+    }
+
+    ControlMessage(int msgId, Class<?> dataType) {
+        this.messageId = msgId;
+        this.dataType = dataType;
     }
 
     @Override
@@ -56,12 +65,16 @@ public enum ControlMessage implements MessageTypeInterface {
         return messageId;
     }
 
+    @Override
+    public Class<?> getDataType() {
+        return dataType;
+    }
+
     public static ControlMessage fromId(int id)
     throws ClientErrorException {
-        for(ControlMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        ControlMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
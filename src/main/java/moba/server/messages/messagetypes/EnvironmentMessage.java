@@ -35,6 +35,8 @@ public enum EnvironmentMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 5;
 
+    private static final EnvironmentMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     EnvironmentMessage(int msgId) {
@@ -53,10 +55,9 @@ public enum EnvironmentMessage implements MessageTypeInterface {
 
     public static EnvironmentMessage fromId(int id)
     throws ClientErrorException {
-        for(EnvironmentMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        EnvironmentMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
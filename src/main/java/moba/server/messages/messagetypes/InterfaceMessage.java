@@ -38,6 +38,8 @@ public enum InterfaceMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 6;
 
+    private static final InterfaceMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     InterfaceMessage(int msgId) {
@@ -56,10 +58,9 @@ public enum InterfaceMessage implements MessageTypeInterface {
 
     public static InterfaceMessage fromId(int id)
     throws ClientErrorException {
-        for(InterfaceMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        InterfaceMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
@@ -28,11 +28,14 @@ public enum InternMessage implements MessageTypeInterface {
     // @formatter:off
     SERVER_SHUTDOWN      (1),
     SERVER_RESET         (2),
-    REMOVE_CLIENT        (3);
+    REMOVE_CLIENT        (3),
+    HANDLER_FAILED       (4);
     // @formatter:on
 
     public final static int GROUP_ID = 1;
 
+    private static final InternMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     InternMessage(int msgId) {
@@ -51,10 +54,9 @@ public enum InternMessage implements MessageTypeInterface {
 
     public static InternMessage fromId(int id)
     throws ClientErrorException {
-        for(InternMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        InternMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
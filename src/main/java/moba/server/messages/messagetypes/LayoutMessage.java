@@ -21,6 +21,8 @@
 package moba.server.messages.messagetypes;
 
 import moba.server.datatypes.enumerations.ClientError;
+import moba.server.datatypes.objects.GetLayoutChangesData;
+import moba.server.datatypes.objects.SaveTrackLayoutData;
 import moba.server.messages.MessageTypeInterface;
 import moba.server.exceptions.ClientErrorException;
 
@@ -36,17 +38,28 @@ public enum LayoutMessage implements MessageTypeInterface {
     GET_LAYOUT_REQ          (8),
     GET_LAYOUT_READ_ONLY_REQ(9),
     GET_LAYOUT_RES          (10),
-    SAVE_LAYOUT             (11),
+    SAVE_LAYOUT             (11, SaveTrackLayoutData.class),
     LAYOUT_CHANGED          (12),
-    DEFAULT_LAYOUT_CHANGED  (13);
+    DEFAULT_LAYOUT_CHANGED  (13),
+    LAYOUT_DELTA            (14),
+    GET_LAYOUT_CHANGES_REQ  (15, GetLayoutChangesData.class),
+    GET_LAYOUT_CHANGES_RES  (16);
     // @formatter:on
 
     public final static int GROUP_ID = 8;
 
+    private static final LayoutMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
+    private final Class<?> dataType;
 
     LayoutMessage(int msgId) {
-        messageId = msgId;
+        this(msgId, null);
+    }
+
+    LayoutMessage(int msgId, Class<?> dataType) {
+        this.messageId = msgId;
+        this.dataType = dataType;
     }
 
     @Override
@@ -59,12 +72,16 @@ public enum LayoutMessage implements MessageTypeInterface {
         return messageId;
     }
 
+    @Override
+    public Class<?> getDataType() {
+        return dataType;
+    }
+
     public static LayoutMessage fromId(int id)
     throws ClientErrorException {
-        for(LayoutMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        LayoutMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
@@ -34,6 +34,8 @@ public enum MessagingMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 9;
 
+    private static final MessagingMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     MessagingMessage(int msgId) {
@@ -52,10 +54,9 @@ public enum MessagingMessage implements MessageTypeInterface {
 
     public static MessagingMessage fromId(int id)
     throws ClientErrorException {
-        for(MessagingMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        MessagingMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
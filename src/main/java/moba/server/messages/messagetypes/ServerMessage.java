@@ -42,6 +42,8 @@ public enum ServerMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 3;
 
+    private static final ServerMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     ServerMessage(int msgId) {
@@ -60,10 +62,9 @@ public enum ServerMessage implements MessageTypeInterface {
 
     public static ServerMessage fromId(int id)
     throws ClientErrorException {
-        for(ServerMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        ServerMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
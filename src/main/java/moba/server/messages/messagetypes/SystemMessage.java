@@ -39,6 +39,8 @@ public enum SystemMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 7;
 
+    private static final SystemMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     SystemMessage(int msgId) {
@@ -57,10 +59,9 @@ public enum SystemMessage implements MessageTypeInterface {
 
     public static SystemMessage fromId(int id)
     throws ClientErrorException {
-        for(SystemMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        SystemMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
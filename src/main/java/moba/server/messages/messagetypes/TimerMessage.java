@@ -33,6 +33,8 @@ public enum TimerMessage implements MessageTypeInterface {
 
     public final static int GROUP_ID = 4;
 
+    private static final TimerMessage[] TYPES = MessageTypeInterface.indexById(values());
+
     private final int messageId;
 
     TimerMessage(int msgId) {
@@ -51,10 +53,9 @@ public enum TimerMessage implements MessageTypeInterface {
 
     public static TimerMessage fromId(int id)
     throws ClientErrorException {
-        for(TimerMessage type : values()) {
-            if(type.messageId == id) {
-                return type;
-            }
+        TimerMessage type = MessageTypeInterface.lookup(TYPES, id);
+        if(type != null) {
+            return type;
         }
         throw new ClientErrorException(
             ClientError.UNKNOWN_MESSAGE_ID,
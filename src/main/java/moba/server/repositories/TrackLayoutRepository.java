@@ -164,6 +164,11 @@ public final class TrackLayoutRepository {
         return map;
     }
 
+    /**
+     * Stores the symbols of the layout. Only the difference to the stored rows (by symbol-id) is written, as batched
+     * DELETE, UPDATE and INSERT within one transaction. Symbols without id are inserted and get their id from the
+     * database. Every single row is logged on level FINE only.
+     */
     public void saveLayout(long id, LayoutMap container)
     throws SQLException, ClientErrorException {
 
@@ -181,37 +186,78 @@ public final class TrackLayoutRepository {
                     }
                 }
 
-                q = "DELETE FROM `TrackLayoutSymbols` WHERE `TrackLayoutId` = ?";
-                try(PreparedStatement pStmt = con.prepareStatement(q)) {
-                    pStmt.setLong(1, id);
-                    logger.log(Level.INFO, pStmt.toString());
-                    pStmt.executeUpdate();
-                }
+                Map<Long, StoredSymbol> stored = getStoredSymbols(con, id);
+
+                // @formatter:off
+                int deleted  = 0;
+                int updated  = 0;
+                int inserted = 0;
+                // @formatter:on
 
-                q =
+                String qUpdate =
+                    "UPDATE `TrackLayoutSymbols` SET `XPos` = ?, `YPos` = ?, `Symbol` = ? " +
+                    "WHERE `Id` = ? AND `TrackLayoutId` = ?";
+
+                String qInsert =
                     "INSERT INTO `TrackLayoutSymbols` (`Id`, `TrackLayoutId`, `XPos`, `YPos`, `Symbol`) " +
                     "VALUES (?, ?, ?, ?, ?)";
 
-                try(PreparedStatement pStmt = con.prepareStatement(q)) {
+                String qDelete = "DELETE FROM `TrackLayoutSymbols` WHERE `Id` = ? AND `TrackLayoutId` = ?";
+
+                try(
+                    PreparedStatement uStmt = con.prepareStatement(qUpdate);
+                    PreparedStatement iStmt = con.prepareStatement(qInsert);
+                    PreparedStatement dStmt = con.prepareStatement(qDelete)
+                ) {
                     for(Map.Entry<Position, TrackLayoutSymbolData> entry : container.entrySet()) {
                         Position key = entry.getKey();
                         TrackLayoutSymbolData value = entry.getValue();
+                        int symbol = value.symbol().toJson();
 
-                        if(value.id() == null) {
-                            pStmt.setNull(1, java.sql.Types.INTEGER);
-                        } else {
-                            pStmt.setLong(1, value.id());
+                        StoredSymbol prev = value.id() == null ? null : stored.remove(value.id());
+
+                        if(prev == null) {
+                            if(value.id() == null) {
+                                iStmt.setNull(1, java.sql.Types.INTEGER);
+                            } else {
+                                iStmt.setLong(1, value.id());
+                            }
+                            iStmt.setLong(2, id);
+                            iStmt.setLong(3, key.getX());
+                            iStmt.setLong(4, key.getY());
+                            iStmt.setInt(5, symbol);
+                            addBatch(iStmt);
+                            inserted++;
+                        } else if(prev.xPos != key.getX() || prev.yPos != key.getY() || prev.symbol != symbol) {
+                            uStmt.setLong(1, key.getX());
+                            uStmt.setLong(2, key.getY());
+                            uStmt.setInt(3, symbol);
+                            uStmt.setLong(4, value.id());
+                            uStmt.setLong(5, id);
+                            addBatch(uStmt);
+                            updated++;
                         }
+                    }
 
-                        pStmt.setLong(2, id);
-                        pStmt.setLong(3, key.getX());
-                        pStmt.setLong(4, key.getY());
-                        pStmt.setInt(5, value.symbol().toJson());
-                        logger.log(Level.INFO, pStmt.toString());
-                        pStmt.executeUpdate();
+                    // alles, was nicht mehr im Layout enthalten ist
+                    for(Long symbolId : stored.keySet()) {
+                        dStmt.setLong(1, symbolId);
+                        dStmt.setLong(2, id);
+                        addBatch(dStmt);
+                        deleted++;
                     }
+
+                    // löschen zuerst, damit frei gewordene Positionen wieder belegt werden können
+                    dStmt.executeBatch();
+                    uStmt.executeBatch();
+                    iStmt.executeBatch();
                 }
                 con.commit();
+                logger.log(
+                    Level.INFO,
+                    "layout <{0}> saved: <{1}> inserted, <{2}> updated, <{3}> deleted",
+                    new Object[]{id, inserted, updated, deleted}
+                );
             } catch(SQLException | ClientErrorException e) {
                 con.rollback();
                 throw e;
@@ -238,4 +284,34 @@ public final class TrackLayoutRepository {
             return new DateTime(rs.getDate("CreationDate"));
         }
     }
+
+    private record StoredSymbol(long xPos, long yPos, int symbol) {
+    }
+
+    private Map<Long, StoredSymbol> getStoredSymbols(Connection con, long id)
+    throws SQLException {
+        String q = "SELECT `Id`, `XPos`, `YPos`, `Symbol` FROM `TrackLayoutSymbols` WHERE `TrackLayoutId` = ?";
+
+        Map<Long, StoredSymbol> stored = new HashMap<>();
+        try(PreparedStatement stmt = con.prepareStatement(q)) {
+            stmt.setLong(1, id);
+
+            ResultSet rs = stmt.executeQuery();
+            while(rs.next()) {
+                stored.put(
+                    rs.getLong("Id"),
+                    new StoredSymbol(rs.getLong("XPos"), rs.getLong("YPos"), rs.getInt("Symbol"))
+                );
+            }
+        }
+        return stored;
+    }
+
+    private void addBatch(PreparedStatement stmt)
+    throws SQLException {
+        if(logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, stmt.toString());
+        }
+        stmt.addBatch();
+    }
 }
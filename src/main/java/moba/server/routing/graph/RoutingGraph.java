@@ -0,0 +1,299 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.graph;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.enumerations.TrainType;
+import moba.server.datatypes.objects.Train;
+import moba.server.routing.nodes.BlockNode;
+import moba.server.routing.nodes.NodeInterface;
+import moba.server.routing.typedefs.BlockNodeMap;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Unveränderliche, kompakte Abbildung des vom LayoutParser erzeugten Knotengeflechts. Knoten (Blöcke und Weichen)
+ * sind dicht durchnummeriert, gesucht wird über gerichtete Abschnitte (Bögen, von Knoten nach Knoten), deren
+ * Nachfolger in primitiven Arrays liegen. Nach dem Erzeugen wird nichts mehr verändert, eine Instanz kann daher von
+ * beliebig vielen Threads gleichzeitig verwendet werden.
+ *
+ * Die Zugbeschränkungen (Oberleitung, Zugarten) eines Knotens liegen als Bitmaske vor: Bit n der unteren 32 Bit ist
+ * gesetzt, wenn ein Zug der Zugart mit Ordinalzahl n (Bit 31: ohne Zugart) ohne Stromabnehmer den Knoten befahren
+ * darf, die oberen 32 Bit entsprechend für Züge mit Stromabnehmer.
+ */
+final public class RoutingGraph {
+
+    public static final int NONE = -1;
+
+    private static final int NO_TRAIN_TYPE = 31;
+
+    // @formatter:off
+    private final long[] nodeId;
+    private final boolean[] block;
+    private final long[] allowed;
+
+    // Erster Bogen beim Verlassen eines Blockes zur Seite "in" bzw. "out" und dessen Länge
+    private final int[] startArc;
+    private final int[] startCost;
+
+    private final int[] arcHead;
+
+    // Nachfolger eines Bogens bei gerader und abzweigender Weichenstellung (Blöcke: nur gerade) und deren Länge
+    private final int[] straightArc;
+    private final int[] straightCost;
+    private final int[] bendArc;
+    private final int[] bendCost;
+
+    // Blöcke aufsteigend nach Id zum Nachschlagen ohne Boxing
+    private final long[] blockIds;
+    private final int[]  blockNodes;
+    // @formatter:on
+
+    private RoutingGraph(Builder builder) {
+        int nodes = builder.nodes.size();
+        int arcs = builder.arcCount;
+
+        nodeId = new long[nodes];
+        block = new boolean[nodes];
+        allowed = new long[nodes];
+        startArc = new int[nodes * 2];
+        startCost = new int[nodes * 2];
+        Arrays.fill(startArc, NONE);
+
+        for(Map.Entry<NodeInterface, Integer> entry : builder.nodes.entrySet()) {
+            NodeInterface node = entry.getKey();
+            int idx = entry.getValue();
+            nodeId[idx] = node.getId();
+            block[idx] = node instanceof BlockNode;
+            allowed[idx] = getAllowedMask(node);
+        }
+
+        arcHead = Arrays.copyOf(builder.arcHead, arcs);
+        straightArc = Arrays.copyOf(builder.straightArc, arcs);
+        straightCost = Arrays.copyOf(builder.straightCost, arcs);
+        bendArc = Arrays.copyOf(builder.bendArc, arcs);
+        bendCost = Arrays.copyOf(builder.bendCost, arcs);
+
+        blockIds = new long[builder.blocks.length];
+        blockNodes = new int[builder.blocks.length];
+
+        for(int i = 0; i < builder.blocks.length; ++i) {
+            int idx = builder.blocks[i];
+            blockIds[i] = nodeId[idx];
+            blockNodes[i] = idx;
+            startArc[idx * 2] = builder.startArc[i * 2];
+            startArc[idx * 2 + 1] = builder.startArc[i * 2 + 1];
+            startCost[idx * 2] = builder.startCost[i * 2];
+            startCost[idx * 2 + 1] = builder.startCost[i * 2 + 1];
+        }
+    }
+
+    public static RoutingGraph of(BlockNodeMap blocks) {
+        return new RoutingGraph(new Builder(blocks));
+    }
+
+    public int getNodeCount() {
+        return nodeId.length;
+    }
+
+    public int getArcCount() {
+        return arcHead.length;
+    }
+
+    public long getNodeId(int node) {
+        return nodeId[node];
+    }
+
+    public boolean isBlock(int node) {
+        return block[node];
+    }
+
+    /**
+     * Knotenindex des Blockes mit der Id id, NONE wenn unbekannt
+     */
+    public int getBlockNode(long id) {
+        int pos = Arrays.binarySearch(blockIds, id);
+        return pos < 0 ? NONE : blockNodes[pos];
+    }
+
+    /**
+     * Alle Blöcke als Knotenindex (aufsteigend nach Id)
+     */
+    public int getBlockCount() {
+        return blockNodes.length;
+    }
+
+    public int getBlockNodeAt(int i) {
+        return blockNodes[i];
+    }
+
+    /**
+     * Erster Bogen beim Verlassen des Blockes node, side 0: Seite "in", 1: Seite "out"
+     */
+    public int getStartArc(int node, int side) {
+        return startArc[node * 2 + side];
+    }
+
+    public int getStartCost(int node, int side) {
+        return startCost[node * 2 + side];
+    }
+
+    public int getHead(int arc) {
+        return arcHead[arc];
+    }
+
+    public int getNextArc(int arc, SwitchStand stand) {
+        return stand == SwitchStand.BEND ? bendArc[arc] : straightArc[arc];
+    }
+
+    public int getNextCost(int arc, SwitchStand stand) {
+        return stand == SwitchStand.BEND ? bendCost[arc] : straightCost[arc];
+    }
+
+    /**
+     * Bitmaske der Zugklasse, siehe {@link #isAllowed(int, long)}
+     */
+    public static long getTrainMask(Train train) {
+        return getTrainMask(train.trainType(), train.hasPantograph());
+    }
+
+    public boolean isAllowed(int node, long trainMask) {
+        return (allowed[node] & trainMask) != 0;
+    }
+
+    private static long getTrainMask(TrainType type, boolean hasPantograph) {
+        long bit = 1L << (type == null ? NO_TRAIN_TYPE : type.ordinal());
+        return hasPantograph ? bit << 32 : bit;
+    }
+
+    private static long getAllowedMask(NodeInterface node) {
+        long mask = 0;
+        for(boolean hasPantograph : new boolean[]{false, true}) {
+            if(node.trainAllowed(new Train(0, 0, null, null, null, hasPantograph, false))) {
+                mask |= getTrainMask(null, hasPantograph);
+            }
+            for(TrainType type : TrainType.values()) {
+                if(node.trainAllowed(new Train(0, 0, null, null, type, hasPantograph, false))) {
+                    mask |= getTrainMask(type, hasPantograph);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Nummeriert Knoten und Bögen in der Reihenfolge, in der sie von den Blöcken (aufsteigend nach Id) aus erreicht
+     * werden. Ein Bogen ist wie bei den Routern durch (von Knoten, nach Knoten) bestimmt.
+     */
+    private static final class Builder {
+
+        private record Arc(NodeInterface origin, NodeInterface node) {
+        }
+
+        private final Map<NodeInterface, Integer> nodes = new IdentityHashMap<>();
+        private final Map<Arc, Integer> arcs = new HashMap<>();
+        private final ArrayDeque<Arc> queue = new ArrayDeque<>();
+
+        private int arcCount = 0;
+        private int[] arcHead = new int[16];
+        private int[] straightArc = new int[16];
+        private int[] straightCost = new int[16];
+        private int[] bendArc = new int[16];
+        private int[] bendCost = new int[16];
+
+        private final int[] blocks;
+        private final int[] startArc;
+        private final int[] startCost;
+
+        private Builder(BlockNodeMap blockMap) {
+            long[] ids = blockMap.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+            blocks = new int[ids.length];
+            startArc = new int[ids.length * 2];
+            startCost = new int[ids.length * 2];
+
+            for(int i = 0; i < ids.length; ++i) {
+                BlockNode block = blockMap.get(ids[i]);
+                blocks[i] = getNode(block);
+
+                // Ein Block wird zur jeweils anderen Seite hin verlassen
+                startArc[i * 2] = getArc(block, block.getIn());
+                startCost[i * 2] = getCost(block, block.getIn(), block.getOut());
+                startArc[i * 2 + 1] = getArc(block, block.getOut());
+                startCost[i * 2 + 1] = getCost(block, block.getOut(), block.getIn());
+            }
+
+            Arc arc;
+            while((arc = queue.poll()) != null) {
+                int idx = arcs.get(arc);
+                NodeInterface node = arc.node();
+
+                NodeInterface straight = node.getJunctionNode(SwitchStand.STRAIGHT, arc.origin());
+                straightArc[idx] = getArc(node, straight);
+                straightCost[idx] = straight == null ? 0 : node.getJunctionDistance(SwitchStand.STRAIGHT, arc.origin());
+
+                if(node instanceof BlockNode) {
+                    bendArc[idx] = NONE;
+                    continue;
+                }
+                NodeInterface bend = node.getJunctionNode(SwitchStand.BEND, arc.origin());
+                bendArc[idx] = getArc(node, bend);
+                bendCost[idx] = bend == null ? 0 : node.getJunctionDistance(SwitchStand.BEND, arc.origin());
+            }
+        }
+
+        private int getNode(NodeInterface node) {
+            return nodes.computeIfAbsent(node, n -> nodes.size());
+        }
+
+        private int getCost(BlockNode block, NodeInterface to, NodeInterface other) {
+            return to == null ? 0 : block.getJunctionDistance(SwitchStand.STRAIGHT, other);
+        }
+
+        private int getArc(NodeInterface origin, NodeInterface node) {
+            if(node == null) {
+                return NONE;
+            }
+            Arc arc = new Arc(origin, node);
+            Integer idx = arcs.get(arc);
+            if(idx != null) {
+                return idx;
+            }
+            if(arcCount == arcHead.length) {
+                int size = arcCount * 2;
+                arcHead = Arrays.copyOf(arcHead, size);
+                straightArc = Arrays.copyOf(straightArc, size);
+                straightCost = Arrays.copyOf(straightCost, size);
+                bendArc = Arrays.copyOf(bendArc, size);
+                bendCost = Arrays.copyOf(bendCost, size);
+            }
+            getNode(origin);
+            arcHead[arcCount] = getNode(node);
+            arcs.put(arc, arcCount);
+            queue.add(arc);
+            return arcCount++;
+        }
+    }
+}
@@ -35,6 +35,9 @@ final public class BlockNode extends AbstractNode {
     private NodeInterface in = null;
     private NodeInterface out = null;
 
+    private int inDistance = 1;
+    private int outDistance = 1;
+
     private Train train = null;
 
     public BlockNode(long id) {
@@ -56,7 +59,7 @@ final public class BlockNode extends AbstractNode {
     }
 
     @Override
-    public void setJunctionNode(int dir, NodeInterface node)
+    public void setJunctionNode(int dir, NodeInterface node, int distance)
     throws NodeException {
         switch(dir) {
             case Direction.TOP:
@@ -64,6 +67,7 @@ final public class BlockNode extends AbstractNode {
             case Direction.RIGHT:
             case Direction.BOTTOM_RIGHT:
                 out = node;
+                outDistance = distance;
                 return;
 
             case Direction.BOTTOM:
@@ -71,6 +75,7 @@ final public class BlockNode extends AbstractNode {
             case Direction.LEFT:
             case Direction.TOP_LEFT:
                 in = node;
+                inDistance = distance;
                 return;
         }
         throw new NodeException("invalid direction given!");
@@ -91,6 +96,18 @@ final public class BlockNode extends AbstractNode {
         throw new NodeException("invalid node given!");
     }
 
+    @Override
+    public int getJunctionDistance(SwitchStand switchStand, NodeInterface node)
+    throws NodeException {
+        if(node == in) {
+            return outDistance;
+        }
+        if(node == out) {
+            return inDistance;
+        }
+        throw new NodeException("invalid node given!");
+    }
+
     public NodeInterface getIn() {
         return in;
     }
@@ -28,7 +28,19 @@ public interface NodeInterface {
 
     NodeInterface getJunctionNode(SwitchStand switchStand, NodeInterface node) throws NodeException;
 
-    void setJunctionNode(int dir, NodeInterface node) throws NodeException;
+    default void setJunctionNode(int dir, NodeInterface node) throws NodeException {
+        setJunctionNode(dir, node, 1);
+    }
+
+    /**
+     * Verbindet den Anschluss in Richtung dir mit node, distance ist die Länge des Gleisabschnittes (Anzahl Symbole)
+     */
+    void setJunctionNode(int dir, NodeInterface node, int distance) throws NodeException;
+
+    /**
+     * Länge des Abschnittes, über den getJunctionNode(switchStand, node) den Knoten verlässt
+     */
+    int getJunctionDistance(SwitchStand switchStand, NodeInterface node) throws NodeException;
 
     void turn(SwitchStand stand);
 
@@ -29,25 +29,32 @@ final public class SwitchNode extends AbstractNode {
     private NodeInterface outStraight;
     private NodeInterface outBend;
 
+    private int inDistance = 1;
+    private int outStraightDistance = 1;
+    private int outBendDistance = 1;
+
     public SwitchNode(long id, SwitchStand switchStand) {
         super(id, switchStand);
     }
 
     @Override
-    public void setJunctionNode(int dir, NodeInterface node)
+    public void setJunctionNode(int dir, NodeInterface node, int distance)
     throws NodeException {
         switch(dir) {
             case Direction.TOP:
                 outStraight = node;
+                outStraightDistance = distance;
                 return;
 
             case Direction.TOP_LEFT:
             case Direction.TOP_RIGHT:
                 outBend = node;
+                outBendDistance = distance;
                 return;
 
             case Direction.BOTTOM:
                 in = node;
+                inDistance = distance;
                 return;
 
             default:
@@ -81,6 +88,22 @@ final public class SwitchNode extends AbstractNode {
         return null;
     }
 
+    @Override
+    public int getJunctionDistance(SwitchStand switchStand, NodeInterface node)
+    throws NodeException {
+        NodeInterface next = getJunctionNode(switchStand, node);
+        if(next == null) {
+            return 0;
+        }
+        if(node != in) {
+            return inDistance;
+        }
+        if(switchStand == SwitchStand.BEND) {
+            return outBendDistance;
+        }
+        return outStraightDistance;
+    }
+
     public void turn(SwitchStand stand) {
         currentState = stand;
     }
@@ -21,13 +21,13 @@
 package moba.server.routing.parser;
 
 import moba.server.datatypes.collections.BlockContactDataMap;
+import moba.server.datatypes.collections.LayoutGrid;
 import moba.server.datatypes.collections.LayoutMap;
 import moba.server.datatypes.collections.SwitchStateMap;
 import moba.server.datatypes.enumerations.SymbolType;
 import moba.server.datatypes.objects.Position;
 import moba.server.datatypes.objects.SwitchStandData;
 import moba.server.datatypes.objects.Symbol;
-import moba.server.datatypes.objects.TrackLayoutSymbolData;
 import moba.server.routing.Direction;
 import moba.server.routing.nodes.BlockNode;
 import moba.server.routing.nodes.NodeException;
@@ -35,11 +35,13 @@ import moba.server.routing.nodes.NodeInterface;
 import moba.server.routing.nodes.SwitchNode;
 import moba.server.routing.typedefs.*;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.NoSuchElementException;
 
 public class LayoutParser {
     // IN
-    private final LayoutMap layout;
+    private final LayoutGrid layout;
 
     private final BlockContactDataMap blockContacts;
 
@@ -51,10 +53,21 @@ public class LayoutParser {
     // INTERN
     private final NodeJunctionsMap nodes = new NodeJunctionsMap();
 
+    /**
+     * Arbeitet auf einem eigenen Raster mit Kopien der Symbole, layout bleibt unverändert
+     */
     public LayoutParser(
         LayoutMap layout,
         BlockContactDataMap blockContacts,
         SwitchStateMap switchStates
+    ) {
+        this(LayoutGrid.of(layout), blockContacts, switchStates);
+    }
+
+    public LayoutParser(
+        LayoutGrid layout,
+        BlockContactDataMap blockContacts,
+        SwitchStateMap switchStates
     ) {
         this.layout = layout;
         this.blockContacts = blockContacts;
@@ -68,72 +81,117 @@ public class LayoutParser {
         return blockNodeMap;
     }
 
+    /**
+     * Erzeugt die Knoten ausgehend von allen Blockkontakten. Statt einer Rekursion je offenem Anschluss werden die
+     * noch zu verfolgenden Anschlüsse in einer Arbeitsliste gehalten, die Laufzeit ist damit linear in der Anzahl der
+     * Symbole und unabhängig von der Größe der Anlage stackfrei.
+     */
     public LayoutParser parse() {
+        HashMap<Long, Position> positions = layout.getPositions(blockContacts.keySet());
+
+        boolean found = false;
 
-        // Position des ersten Blockkontaktes
-        long id = blockContacts.entrySet().iterator().next().getKey();
+        for(long id : blockContacts.keySet()) {
+            Position startPos = positions.get(id);
 
-        Position startPos = getPositionFromId(id);
-        Symbol curSymbol = layout.get(startPos).symbol();
+            if(startPos == null) {
+                continue;
+            }
+            found = true;
+
+            // Block liegt in einem bereits erfassten Teil der Anlage
+            if(nodes.containsKey(startPos)) {
+                continue;
+            }
+
+            Symbol curSymbol = layout.getSymbol(startPos);
 
-        int dir1 = curSymbol.getNextJunction();
-        fetchBlockNodes(new LocationVector(startPos, dir1));
+            int dir1 = curSymbol.getNextJunction();
+            int dir2 = curSymbol.getNextJunction(dir1);
 
-        int dir2 = curSymbol.getNextJunction(dir1);
-        fetchBlockNodes(new LocationVector(startPos, dir2));
+            fetchBlockNodes(new LocationVector(new Position(startPos), dir1));
+            fetchBlockNodes(new LocationVector(new Position(startPos), dir2));
+        }
+
+        if(!found) {
+            throw new NoSuchElementException("no position found for any block contact");
+        }
         return this;
     }
 
-    private Position getPositionFromId(long id) {
-        for(var entry : layout.entrySet()) {
-            if(entry.getValue().id() == id) {
-                return entry.getKey();
+    private void fetchBlockNodes(LocationVector first) {
+        ArrayDeque<LocationVector> worklist = new ArrayDeque<>();
+        worklist.push(first);
+
+        LocationVector startPos;
+        while((startPos = worklist.poll()) != null) {
+            Symbol startSymbol = layout.getSymbol(startPos.getPosition());
+
+            // Anschluss wurde inzwischen von der Gegenseite aus erfasst
+            if(startPos.getDirection() == Direction.UNSET || !startSymbol.isJunctionSet(startPos.getDirection())) {
+                continue;
             }
-        }
-        throw new NoSuchElementException("no position found for id " + id);
-    }
 
-    private void fetchBlockNodes(LocationVector startPos) {
+            LocationVector endPos = getNextNodePosition(new LocationVector(startPos));
 
-        LocationVector endPos = getNextNodePosition(new LocationVector(startPos));
+            if(endPos == null) {
+                // Prellbock oder bereits erfasst: Anschluss ist erledigt
+                startSymbol.removeJunction(startPos.getDirection());
+                continue;
+            }
 
-        if(endPos == null) {
-            return;
-        }
+            // @formatter:off
+            NodeJunction start = getNodeJunction(startPos.getPosition());
+            NodeJunction end   = getNodeJunction(endPos.getPosition());
+            // @formatter:on
 
-        // @formatter:off
-        NodeJunction start = getNodeJunction(startPos.getPosition());
-        NodeJunction end   = getNodeJunction(endPos.getPosition());
-        // @formatter:on
+            // Länge des Abschnittes in Symbolen, Gewicht für den GraphRouter
+            int distance = endPos.getSteps();
 
-        start.setCounterpartNode(startPos.getDirection(), end.node());
-        end.setCounterpartNode(Direction.getComplementaryDirection(endPos.getDirection()), start.node());
+            start.setCounterpartNode(startPos.getDirection(), end.node(), distance);
+            end.setCounterpartNode(Direction.getComplementaryDirection(endPos.getDirection()), start.node(), distance);
 
-        Symbol startSymbol = layout.get(startPos.getPosition()).symbol();
-        Symbol endSymbol = layout.get(endPos.getPosition()).symbol();
+            Symbol endSymbol = layout.getSymbol(endPos.getPosition());
 
-        startSymbol.removeJunction(startPos.getDirection());
-        endSymbol.removeJunction(Direction.getComplementaryDirection(endPos.getDirection()));
+            startSymbol.removeJunction(startPos.getDirection());
+            endSymbol.removeJunction(Direction.getComplementaryDirection(endPos.getDirection()));
 
-        int dir = Direction.TOP;
+            // Offene Anschlüsse im Uhrzeigersinn ab TOP_RIGHT, in umgekehrter Reihenfolge auf den Stapel, damit sie
+            // wie bei der früheren Rekursion der Reihe nach verfolgt werden
+            ArrayDeque<LocationVector> next = new ArrayDeque<>();
+            int dir = Direction.TOP;
 
-        while((dir = endSymbol.getNextOpenJunction(dir)) != Direction.UNSET) {
-            fetchBlockNodes(new LocationVector(endPos.getPosition(), dir));
+            for(int i = 0; i < 8; ++i) {
+                dir = Direction.shift(dir, 1);
+                if(endSymbol.isJunctionSet(dir)) {
+                    next.push(new LocationVector(new Position(endPos.getPosition()), dir));
+                }
+            }
+            for(LocationVector vector : next) {
+                worklist.push(vector);
+            }
         }
     }
 
     private LocationVector getNextNodePosition(LocationVector pos) {
-        while(true) {
+        // Ein Weg ohne Knoten kann jedes Symbol höchstens zweimal (Kreuzung) passieren
+        int maxSteps = 2 * layout.size() + 1;
+
+        while(pos.getSteps() < maxSteps) {
             // Schritt weiter zum nächsten Symbol
             pos.step();
 
             // Symbol von der aktuellen Position im Gleisplan
-            TrackLayoutSymbolData curSymbolData = layout.get(pos.getPosition());
-            Symbol curSymbol = curSymbolData.symbol();
+            Symbol curSymbol = layout.getSymbol(pos.getPosition());
+
+            if(curSymbol == null) {
+                throw new NodeException("track leads to empty position " + pos.getPosition());
+            }
 
+            long id = layout.getId(pos.getPosition());
 
             // Prüfen, ob das Symbol eine Weiche oder ein Block ist
-            if(blockContacts.containsKey(curSymbolData.id()) || switchStates.containsKey(curSymbolData.id())) {
+            if(blockContacts.containsKey(id) || switchStates.containsKey(id)) {
                 if(curSymbol.hasOpenJunctionsLeft()) {
                     return pos;
                 }
@@ -153,6 +211,7 @@ public class LayoutParser {
                 pos.setDirection(curDir);
             }
         }
+        throw new NodeException("no node found within " + maxSteps + " steps, track ends at " + pos.getPosition());
     }
 
     private NodeJunction getNodeJunction(Position curPos) {
@@ -161,9 +220,8 @@ public class LayoutParser {
             return nodes.get(curPos);
         }
         // @formatter:off
-        TrackLayoutSymbolData curSymbolData = layout.get(curPos);
-        Symbol                curSymbol     = curSymbolData.symbol();
-        long                  id            = curSymbolData.id();
+        Symbol curSymbol = layout.getSymbol(curPos);
+        long   id        = layout.getId(curPos);
         // @formatter:on
 
         SwitchStandData switchData = switchStates.get(id);
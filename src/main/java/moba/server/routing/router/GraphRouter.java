@@ -0,0 +1,372 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.objects.Train;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.graph.RoutingGraph;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.SwitchStateData;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Dijkstra über die gerichteten Gleisabschnitte des {@link RoutingGraph}. Die Kosten eines Abschnittes sind
+ *     - seine Länge in Symbolen (vom LayoutParser ermittelt),
+ *     - zuzüglich bendPenalty, wenn eine Weiche in abzweigender Stellung befahren wird,
+ *     - zuzüglich occupiedPenalty, wenn ein Block befahren wird, der von einem anderen Zug reserviert ist.
+ * Belegte Blöcke werden also nicht gesperrt, sondern nur umfahren, sofern es einen anderen Weg gibt. Bei gleichen
+ * Kosten entscheidet die Reihenfolge: "in" vor "out" und "gerade" vor "abzweigend".
+ *
+ * Die Suche selbst arbeitet nur auf int- und long-Arrays, die je Thread wiederverwendet werden, und legt keine Objekte
+ * an. Erst der gefundene Weg wird in die RoutingElemente umgewandelt.
+ */
+final public class GraphRouter implements RouterInterface {
+
+    public record Costs(
+        int bendPenalty,
+        int occupiedPenalty
+    ) {
+        public static final Costs DEFAULT = new Costs(2, 20);
+    }
+
+    private static final byte STAND_NONE     = 0;
+    private static final byte STAND_STRAIGHT = 1;
+    private static final byte STAND_BEND     = 2;
+
+    private final RoutingGraph           graph;
+    private final BlockOccupancy         occupancy;
+    private final Costs                  costs;
+    private final ThreadLocal<Workspace> workspace;
+
+    /**
+     * Baum der günstigsten Wege von einem Startblock aus: firstArc je Knoten (NONE: nicht erreichbar), parent und stand
+     * je Bogen. Nur lesend verwendet.
+     */
+    public record PathTree(
+        int[] firstArc,
+        int[] parent,
+        byte[] stand
+    ) {
+    }
+
+    /**
+     * Arbeitsspeicher einer Suche. Gültig sind nur Einträge, deren Stempel der aktuellen Suche (epoch) entspricht,
+     * dadurch muss zwischen zwei Suchen nichts gelöscht werden.
+     */
+    private static final class Workspace {
+        private int epoch = 0;
+
+        private final int[]  arcStamp;
+        private final long[] best;
+        private final int[]  settledStamp;
+        private final int[]  parent;
+        private final byte[] stand;
+        private final int[]  occupiedStamp;
+        private final int[]  reachedStamp;
+        private final int[]  firstArc;
+
+        // Binärer Heap nach (Kosten, Einfügereihenfolge)
+        private long[] heapCost = new long[64];
+        private long[] heapSeq  = new long[64];
+        private int[]  heapArc  = new int[64];
+        private int    heapSize = 0;
+        private long   seq      = 0;
+        private long   lastCost = 0;
+
+        private Workspace(RoutingGraph graph) {
+            arcStamp = new int[graph.getArcCount()];
+            best = new long[graph.getArcCount()];
+            settledStamp = new int[graph.getArcCount()];
+            parent = new int[graph.getArcCount()];
+            stand = new byte[graph.getArcCount()];
+            occupiedStamp = new int[graph.getNodeCount()];
+            reachedStamp = new int[graph.getNodeCount()];
+            firstArc = new int[graph.getNodeCount()];
+        }
+
+        private void reset() {
+            epoch++;
+            heapSize = 0;
+            seq = 0;
+        }
+
+        private long getBest(int arc) {
+            return arcStamp[arc] == epoch ? best[arc] : Long.MAX_VALUE;
+        }
+
+        private boolean settle(int arc) {
+            if(settledStamp[arc] == epoch) {
+                return false;
+            }
+            settledStamp[arc] = epoch;
+            return true;
+        }
+
+        private void push(long cost, int arc) {
+            if(heapSize == heapArc.length) {
+                heapCost = Arrays.copyOf(heapCost, heapSize * 2);
+                heapSeq = Arrays.copyOf(heapSeq, heapSize * 2);
+                heapArc = Arrays.copyOf(heapArc, heapSize * 2);
+            }
+            int i = heapSize++;
+            long s = seq++;
+            while(i > 0) {
+                int p = (i - 1) >>> 1;
+                if(!less(cost, s, heapCost[p], heapSeq[p])) {
+                    break;
+                }
+                move(p, i);
+                i = p;
+            }
+            heapCost[i] = cost;
+            heapSeq[i] = s;
+            heapArc[i] = arc;
+        }
+
+        /**
+         * Entnimmt den günstigsten Eintrag, liefert den Bogen (Kosten in lastCost) oder NONE
+         */
+        private int poll() {
+            if(heapSize == 0) {
+                return RoutingGraph.NONE;
+            }
+            int arc = heapArc[0];
+            lastCost = heapCost[0];
+
+            int n = --heapSize;
+            long cost = heapCost[n];
+            long s = heapSeq[n];
+            int a = heapArc[n];
+            int i = 0;
+            while(true) {
+                int c = 2 * i + 1;
+                if(c >= n) {
+                    break;
+                }
+                if(c + 1 < n && less(heapCost[c + 1], heapSeq[c + 1], heapCost[c], heapSeq[c])) {
+                    c++;
+                }
+                if(!less(heapCost[c], heapSeq[c], cost, s)) {
+                    break;
+                }
+                move(c, i);
+                i = c;
+            }
+            heapCost[i] = cost;
+            heapSeq[i] = s;
+            heapArc[i] = a;
+            return arc;
+        }
+
+        private void move(int from, int to) {
+            heapCost[to] = heapCost[from];
+            heapSeq[to] = heapSeq[from];
+            heapArc[to] = heapArc[from];
+        }
+
+        private static boolean less(long c1, long s1, long c2, long s2) {
+            return c1 < c2 || (c1 == c2 && s1 < s2);
+        }
+    }
+
+    public GraphRouter(RoutingGraph graph, BlockOccupancy occupancy, Costs costs) {
+        this.graph     = graph;
+        this.occupancy = occupancy;
+        this.costs     = costs;
+        this.workspace = ThreadLocal.withInitial(() -> new Workspace(graph));
+    }
+
+    public GraphRouter(RoutingGraph graph) {
+        this(graph, BlockOccupancy.NONE, Costs.DEFAULT);
+    }
+
+    @Override
+    public ArrayList<RoutingElementInterface> getRoute(TrainJourney journey) {
+        long fromBlock = journey.departureBlockId();
+        long toBlock = journey.destinationBlockId();
+
+        int start = graph.getBlockNode(fromBlock);
+
+        if(start == RoutingGraph.NONE) {
+            throw new IllegalArgumentException("start-block <" + fromBlock + "> not found");
+        }
+
+        if(toBlock == fromBlock) {
+            // Zug befindet sich bereits in diesem Block.
+            return new ArrayList<>();
+        }
+
+        Workspace ws = workspace.get();
+        ws.reset();
+        markOccupied(ws, getOccupiedBlocks(journey.train().trainId()));
+
+        int target = graph.getBlockNode(toBlock);
+        int arc = target == RoutingGraph.NONE ? RoutingGraph.NONE : search(ws, start, journey.train(), target);
+
+        if(arc == RoutingGraph.NONE) {
+            throw new IllegalArgumentException("no route found from <" + fromBlock + "> to <" + toBlock + ">");
+        }
+        return RouterInterface.toRoutingList(getPath(ws.parent, ws.stand, arc));
+    }
+
+    /**
+     * Sucht von fromBlock aus den ganzen erreichbaren Graphen ohne Belegung ab (für die {@link RouteTable}). Statt
+     * aller Wege wird nur der Baum der günstigsten Wege gespeichert, die Wege selbst liefert {@link #getRoute(PathTree,
+     * long)}.
+     */
+    public PathTree getPathTree(long fromBlock, Train train) {
+        int start = graph.getBlockNode(fromBlock);
+
+        if(start == RoutingGraph.NONE) {
+            throw new IllegalArgumentException("start-block <" + fromBlock + "> not found");
+        }
+
+        Workspace ws = workspace.get();
+        ws.reset();
+
+        search(ws, start, train, RoutingGraph.NONE);
+
+        int[] firstArc = new int[graph.getNodeCount()];
+        for(int node = 0; node < firstArc.length; ++node) {
+            firstArc[node] = ws.reachedStamp[node] == ws.epoch ? ws.firstArc[node] : RoutingGraph.NONE;
+        }
+        return new PathTree(firstArc, ws.parent.clone(), ws.stand.clone());
+    }
+
+    /**
+     * Weg zum Block toBlock aus einem mit {@link #getPathTree(long, Train)} ermittelten Baum, null wenn nicht
+     * erreichbar.
+     */
+    public ArrayList<RoutingElementInterface> getRoute(PathTree tree, long toBlock) {
+        int target = graph.getBlockNode(toBlock);
+
+        if(target == RoutingGraph.NONE || tree.firstArc()[target] == RoutingGraph.NONE) {
+            return null;
+        }
+        return RouterInterface.toRoutingList(getPath(tree.parent(), tree.stand(), tree.firstArc()[target]));
+    }
+
+    private Set<Long> getOccupiedBlocks(long trainId) {
+        try {
+            return occupancy.getOccupiedBlocks(trainId);
+        } catch(SQLException e) {
+            throw new IllegalStateException("unable to fetch occupied blocks", e);
+        }
+    }
+
+    private void markOccupied(Workspace ws, Set<Long> occupied) {
+        for(long id : occupied) {
+            int node = graph.getBlockNode(id);
+            if(node != RoutingGraph.NONE) {
+                ws.occupiedStamp[node] = ws.epoch;
+            }
+        }
+    }
+
+    /**
+     * Dijkstra vom Block start aus. Ist target gesetzt, wird beim ersten Erreichen abgebrochen und der Bogen geliefert,
+     * sonst wird der ganze erreichbare Graph durchsucht.
+     */
+    private int search(Workspace ws, int start, Train train, int target) {
+        long trainMask = RoutingGraph.getTrainMask(train);
+
+        offer(ws, graph.getStartArc(start, 0), graph.getStartCost(start, 0), RoutingGraph.NONE, STAND_NONE);
+        offer(ws, graph.getStartArc(start, 1), graph.getStartCost(start, 1), RoutingGraph.NONE, STAND_NONE);
+
+        int arc;
+        while((arc = ws.poll()) != RoutingGraph.NONE) {
+            long cost = ws.lastCost;
+            int next = graph.getHead(arc);
+
+            if(next == start || !graph.isAllowed(next, trainMask)) {
+                continue;
+            }
+
+            if(ws.getBest(arc) < cost || !ws.settle(arc)) {
+                continue;
+            }
+
+            if(next == target) {
+                return arc;
+            }
+
+            if(ws.reachedStamp[next] != ws.epoch) {
+                ws.reachedStamp[next] = ws.epoch;
+                ws.firstArc[next] = arc;
+            }
+
+            if(graph.isBlock(next)) {
+                offer(ws, graph.getNextArc(arc, SwitchStand.STRAIGHT), cost + graph.getNextCost(arc, SwitchStand.STRAIGHT), arc, STAND_NONE);
+                continue;
+            }
+            offer(ws, graph.getNextArc(arc, SwitchStand.STRAIGHT), cost + graph.getNextCost(arc, SwitchStand.STRAIGHT), arc, STAND_STRAIGHT);
+            offer(ws, graph.getNextArc(arc, SwitchStand.BEND), cost + graph.getNextCost(arc, SwitchStand.BEND) + costs.bendPenalty(), arc, STAND_BEND);
+        }
+        return RoutingGraph.NONE;
+    }
+
+    private void offer(Workspace ws, int arc, long cost, int parent, byte stand) {
+        if(arc == RoutingGraph.NONE) {
+            return;
+        }
+
+        int node = graph.getHead(arc);
+        if(graph.isBlock(node) && ws.occupiedStamp[node] == ws.epoch) {
+            cost += costs.occupiedPenalty();
+        }
+
+        if(ws.getBest(arc) <= cost) {
+            return;
+        }
+        ws.arcStamp[arc] = ws.epoch;
+        ws.best[arc] = cost;
+        ws.parent[arc] = parent;
+        ws.stand[arc] = stand;
+        ws.push(cost, arc);
+    }
+
+    /**
+     * Weg vom ersten Knoten nach dem Startblock bis zum Zielblock, jeweils mit der Stellung, mit der eine Weiche
+     * verlassen wird.
+     */
+    private ArrayList<SwitchStateData> getPath(int[] parent, byte[] stand, int last) {
+        ArrayList<SwitchStateData> path = new ArrayList<>();
+        path.add(new SwitchStateData(graph.getNodeId(graph.getHead(last)), null));
+
+        for(int arc = last; parent[arc] != RoutingGraph.NONE; arc = parent[arc]) {
+            path.add(new SwitchStateData(graph.getNodeId(graph.getHead(parent[arc])), toStand(stand[arc])));
+        }
+        return new ArrayList<>(path.reversed());
+    }
+
+    private static SwitchStand toStand(byte stand) {
+        return switch(stand) {
+            case STAND_STRAIGHT -> SwitchStand.STRAIGHT;
+            case STAND_BEND     -> SwitchStand.BEND;
+            default             -> null;
+        };
+    }
+}
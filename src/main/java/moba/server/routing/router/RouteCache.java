@@ -0,0 +1,81 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.TrainType;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merkt sich die Wege des dahinterliegenden Routers je Fahrt und Zugprofil. Wartende Züge werden nach jedem
+ * Ereignis erneut geprüft (TrainRunner.pushTrain), solange sich die Belegung nicht ändert, kostet das keine Suche
+ * und keine Datenbankabfrage mehr.
+ *
+ * Der Graph selbst ändert sich nur mit einem Neustart des Servers, dabei wird auch der Cache neu angelegt.
+ */
+final public class RouteCache implements RouterInterface {
+
+    private record Key(
+        long trainId,
+        long departureBlockId,
+        long destinationBlockId,
+        TrainType trainType,
+        boolean hasPantograph,
+        boolean noDirectionalControl
+    ) {
+        private static Key of(TrainJourney journey) {
+            return new Key(
+                journey.train().trainId(),
+                journey.departureBlockId(),
+                journey.destinationBlockId(),
+                journey.train().trainType(),
+                journey.train().hasPantograph(),
+                journey.train().noDirectionalControl()
+            );
+        }
+    }
+
+    private final RouterInterface router;
+
+    private final ConcurrentHashMap<Key, ArrayList<RoutingElementInterface>> routes = new ConcurrentHashMap<>();
+
+    public RouteCache(RouterInterface router) {
+        this.router = router;
+    }
+
+    @Override
+    public ArrayList<RoutingElementInterface> getRoute(TrainJourney journey) {
+        return RouterInterface.copy(routes.computeIfAbsent(Key.of(journey), k -> router.getRoute(journey)));
+    }
+
+    @Override
+    public void invalidate() {
+        routes.clear();
+        router.invalidate();
+    }
+
+    public int size() {
+        return routes.size();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.TrainType;
+import moba.server.datatypes.objects.Train;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.graph.RoutingGraph;
+import moba.server.routing.nodes.BlockNode;
+import moba.server.routing.router.routinglistitems.Block;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.BlockNodeMap;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Vorberechnete Wege zwischen allen Blöcken der aktiven Anlage. Ohne Belegung ist der günstigste Weg nur von der
+ * Anlage und der Zugklasse (Stromabnehmer, Zugart) abhängig, daher wird nach dem Parsen je Zugklasse und Startblock
+ * einmal gesucht. Zugklassen, für die dieselben Blöcke gesperrt sind, teilen sich eine Tabelle.
+ *
+ * Führt der vorberechnete Weg durch einen Block, den ein anderer Zug reserviert hat, wird live mit Belegung gesucht
+ * (der vorberechnete Weg wäre dann womöglich nicht mehr der günstigste).
+ *
+ * Die Fahrtrichtung ist kein Schlüssel der Tabelle, die Router berücksichtigen sie nicht: Ein Weg darf den Startblock
+ * zu beiden Seiten hin verlassen, der Zug muss dafür gegebenenfalls die Richtung wechseln.
+ */
+final public class RouteTable implements RouterInterface {
+
+    private record TrainClass(
+        TrainType trainType,
+        boolean hasPantograph
+    ) {
+        private Train toTrain() {
+            return new Train(0, 0, null, null, trainType, hasPantograph, false);
+        }
+    }
+
+    private final BlockNodeMap   blocks;
+    private final GraphRouter    router;
+    private final BlockOccupancy occupancy;
+
+    // Zugklasse -> Startblock -> Baum der günstigsten Wege
+    private final Map<TrainClass, Map<Long, GraphRouter.PathTree>> tables = new HashMap<>();
+
+    private int tableCount = 0;
+
+    public RouteTable(BlockNodeMap blocks, BlockOccupancy occupancy, GraphRouter.Costs costs) {
+        this.blocks    = blocks;
+        this.occupancy = occupancy;
+        this.router    = new GraphRouter(RoutingGraph.of(blocks), occupancy, costs);
+    }
+
+    public RouteTable precompute() {
+        Map<Set<Long>, Map<Long, GraphRouter.PathTree>> bySignature = new HashMap<>();
+
+        for(boolean hasPantograph : new boolean[]{false, true}) {
+            ArrayList<TrainType> types = new ArrayList<>(Arrays.asList(TrainType.values()));
+            types.add(null);
+
+            for(TrainType type : types) {
+                TrainClass trainClass = new TrainClass(type, hasPantograph);
+                Train train = trainClass.toTrain();
+                tables.put(trainClass, bySignature.computeIfAbsent(getSignature(train), k -> compute(train)));
+            }
+        }
+        tableCount = bySignature.size();
+        return this;
+    }
+
+    /**
+     * Anzahl der unterschiedlichen Tabellen (Zugklassen mit denselben gesperrten Blöcken zusammengefasst)
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    @Override
+    public ArrayList<RoutingElementInterface> getRoute(TrainJourney journey) {
+        long fromBlock = journey.departureBlockId();
+        long toBlock = journey.destinationBlockId();
+
+        Map<Long, GraphRouter.PathTree> table = tables.get(new TrainClass(journey.train().trainType(), journey.train().hasPantograph()));
+
+        if(table == null || !blocks.containsKey(fromBlock)) {
+            return router.getRoute(journey);
+        }
+
+        if(toBlock == fromBlock) {
+            // Zug befindet sich bereits in diesem Block.
+            return new ArrayList<>();
+        }
+
+        ArrayList<RoutingElementInterface> route = router.getRoute(table.get(fromBlock), toBlock);
+
+        if(route == null) {
+            throw new IllegalArgumentException("no route found from <" + fromBlock + "> to <" + toBlock + ">");
+        }
+
+        if(isOccupied(route, journey.train().trainId())) {
+            return router.getRoute(journey);
+        }
+        return route;
+    }
+
+    private Set<Long> getSignature(Train train) {
+        Set<Long> locked = new TreeSet<>();
+        for(BlockNode block : blocks.values()) {
+            if(!block.trainAllowed(train)) {
+                locked.add(block.getId());
+            }
+        }
+        return locked;
+    }
+
+    private Map<Long, GraphRouter.PathTree> compute(Train train) {
+        Map<Long, GraphRouter.PathTree> table = new HashMap<>();
+        for(long id : blocks.keySet()) {
+            table.put(id, router.getPathTree(id, train));
+        }
+        return table;
+    }
+
+    private boolean isOccupied(ArrayList<RoutingElementInterface> route, long trainId) {
+        Set<Long> occupied;
+        try {
+            occupied = occupancy.getOccupiedBlocks(trainId);
+        } catch(SQLException e) {
+            throw new IllegalStateException("unable to fetch occupied blocks", e);
+        }
+
+        if(occupied.isEmpty()) {
+            return false;
+        }
+
+        for(RoutingElementInterface element : route) {
+            if(element instanceof Block block && occupied.contains(block.id())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.router.routinglistitems.Block;
+import moba.server.routing.router.routinglistitems.Route;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.SwitchStateData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public interface RouterInterface {
+
+    /**
+     * Liefert die Blöcke und Fahrstraßen (Weichen mit Stellung) vom Startblock (exklusive) bis zum Zielblock zurück,
+     * eine leere Liste, falls sich der Zug bereits im Zielblock befindet.
+     *
+     * @throws IllegalArgumentException Startblock unbekannt oder kein Weg vorhanden
+     */
+    ArrayList<RoutingElementInterface> getRoute(TrainJourney journey);
+
+    /**
+     * Die Belegung der Blöcke hat sich geändert, zwischengespeicherte Wege sind zu verwerfen
+     */
+    default void invalidate() {
+    }
+
+    /**
+     * Fasst aufeinanderfolgende Weichen (SwitchStand gesetzt) zu einer Route zusammen, Blöcke (SwitchStand null)
+     * werden einzeln übernommen.
+     */
+    static ArrayList<RoutingElementInterface> toRoutingList(List<SwitchStateData> path) {
+        ArrayList<RoutingElementInterface> result = new ArrayList<>();
+        ArrayList<SwitchStateData> routingList = new ArrayList<>();
+
+        for(SwitchStateData routingItem : path) {
+            if(routingItem.switchStand() != null) {
+                routingList.add(routingItem);
+                continue;
+            }
+
+            if(!routingList.isEmpty()) {
+                result.add(new Route(routingList));
+                routingList = new ArrayList<>();
+            }
+            result.add(new Block(routingItem.id()));
+        }
+        return result;
+    }
+
+    /**
+     * Kopie eines Weges: Der TrainRunner verändert die Weichenliste einer Route, zwischengespeicherte Wege dürfen
+     * daher nie selbst herausgegeben werden.
+     */
+    static ArrayList<RoutingElementInterface> copy(List<RoutingElementInterface> route) {
+        ArrayList<RoutingElementInterface> result = new ArrayList<>(route.size());
+        for(RoutingElementInterface element : route) {
+            if(element instanceof Route r) {
+                result.add(new Route(new ArrayList<>(r.switchingList())));
+                continue;
+            }
+            result.add(element);
+        }
+        return result;
+    }
+}
@@ -26,6 +26,7 @@ final public class LocationVector {
 
     private final Position position;
     private int direction;
+    private int steps = 0;
 
     public LocationVector(LocationVector vector) {
         this(new Position(vector.position), vector.direction);
@@ -38,6 +39,14 @@ final public class LocationVector {
 
     public void step() {
         position.setNewPosition(direction);
+        steps++;
+    }
+
+    /**
+     * Anzahl der Schritte seit dem Erzeugen des Vektors
+     */
+    public int getSteps() {
+        return steps;
     }
 
     public void setDirection(int dir) {
@@ -25,8 +25,8 @@ import moba.server.routing.nodes.NodeInterface;
 
 public record NodeJunction(NodeInterface node, int offset) {
 
-    public void setCounterpartNode(int dir, NodeInterface otherNode) {
+    public void setCounterpartNode(int dir, NodeInterface otherNode, int distance) {
         int shiftedDir = Direction.shift(dir, 8 - offset);
-        node.setJunctionNode(shiftedDir, otherNode);
+        node.setJunctionNode(shiftedDir, otherNode, distance);
     }
 }
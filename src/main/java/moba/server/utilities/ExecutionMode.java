@@ -0,0 +1,47 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.utilities;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Determines whether endpoints and background-handlers run on platform- (OS-) threads or on virtual threads.
+ * Virtual threads are cheap, so even hundreds of connected clients don't occupy hundreds of OS-threads.
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public Thread newThread(String name, Runnable runnable) {
+        return getBuilder().name(name).unstarted(runnable);
+    }
+
+    public ThreadFactory getThreadFactory(String name) {
+        return getBuilder().name(name).factory();
+    }
+
+    private Thread.Builder getBuilder() {
+        if(this == VIRTUAL) {
+            return Thread.ofVirtual();
+        }
+        return Thread.ofPlatform();
+    }
+}
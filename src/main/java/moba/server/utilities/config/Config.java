@@ -87,6 +87,14 @@ public class Config {
         return o;
     }
 
+    public Object getSection(String section, Object defaultValue) {
+        Object o = getSection(section);
+        if(o == null) {
+            return defaultValue;
+        }
+        return o;
+    }
+
     @SuppressWarnings("unchecked")
     public void setSection(String section, Object val) {
         if(content == null) {
@@ -32,7 +32,7 @@ import moba.server.utilities.config.Config;
 
 public class ActiveTrackLayout {
 
-    protected Long activeLayout;
+    protected volatile Long activeLayout;
     protected final Dispatcher dispatcher;
     protected final Config config;
 
@@ -0,0 +1,175 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.utilities.layout;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import moba.server.datatypes.collections.LayoutMap;
+import moba.server.datatypes.objects.LayoutDeltaData;
+import moba.server.datatypes.objects.LayoutSymbolData;
+import moba.server.datatypes.objects.Position;
+import moba.server.datatypes.objects.TrackLayoutSymbolData;
+import moba.server.json.PreEncodedJson;
+
+/**
+ * Versioned track-layouts, kept across server-resets: the current symbols of each layout loaded so far, its revision,
+ * the GET_LAYOUT_RES-payload (encoded once, see PreEncodedJson) and the deltas of the last MAX_DELTAS revisions.
+ * Editors apply the LAYOUT_DELTA broadcast after each save instead of re-reading the complete layout, those who
+ * missed some revisions ask for the changes since their last one.
+ */
+public final class LayoutCache {
+
+    // @formatter:off
+    private static final int MAX_DELTAS = 64;
+
+    private final Map<Long, Entry> layouts = new HashMap<>();
+    // @formatter:on
+
+    /**
+     * Reads a layout from the database (TrackLayoutRepository::getLayout), called on a cache-miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        LayoutMap load(long id)
+        throws SQLException;
+    }
+
+    /**
+     * A revision of a layout. Neither symbols nor payload are modified afterwards, a new revision replaces them.
+     * Symbols are shared, callers changing them have to work on a copy (LayoutGrid.of()).
+     */
+    public record Snapshot(long id, long revision, LayoutMap symbols, PreEncodedJson payload) {
+        private Snapshot(long id, long revision, LayoutMap symbols) {
+            this(id, revision, symbols, new PreEncodedJson(Map.of("id", id, "revision", revision, "symbols", symbols)));
+        }
+    }
+
+    private static final class Entry {
+        // @formatter:off
+        private final ArrayDeque<LayoutDeltaData> deltas = new ArrayDeque<>();
+        private Snapshot                          snapshot;
+        // @formatter:on
+
+        private Entry(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Current revision of the layout, loaded on a cache-miss.
+     */
+    public synchronized Snapshot get(long id, Loader loader)
+    throws SQLException {
+        return getEntry(id, loader).snapshot;
+    }
+
+    /**
+     * Stores symbols as the next revision of the layout and returns the delta to the previous one. The previous
+     * revision has to be loaded (get()) before the database gets changed.
+     */
+    public synchronized LayoutDeltaData append(long id, LayoutMap symbols) {
+        Entry entry = layouts.get(id);
+        if(entry == null) {
+            throw new IllegalStateException("previous revision of layout <" + id + "> not loaded");
+        }
+        Snapshot prev = entry.snapshot;
+        LayoutDeltaData delta = diff(id, prev.revision() + 1, prev.symbols(), symbols);
+
+        entry.snapshot = new Snapshot(id, delta.revision(), symbols);
+        entry.deltas.addLast(delta);
+        if(entry.deltas.size() > MAX_DELTAS) {
+            entry.deltas.removeFirst();
+        }
+        return delta;
+    }
+
+    /**
+     * All deltas after the given revision, an empty list if it is the current one. Returns null if the revision is
+     * unknown (too old or from before a server-restart), the client has to fetch the complete layout then.
+     */
+    public synchronized List<LayoutDeltaData> getChangesSince(long id, long revision, Loader loader)
+    throws SQLException {
+        Entry entry = getEntry(id, loader);
+        long current = entry.snapshot.revision();
+        if(revision > current || revision < current - entry.deltas.size()) {
+            return null;
+        }
+        List<LayoutDeltaData> changes = new ArrayList<>();
+        for(LayoutDeltaData delta : entry.deltas) {
+            if(delta.revision() > revision) {
+                changes.add(delta);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Invalidates the layout, e.g. after it was deleted.
+     */
+    public synchronized void remove(long id) {
+        layouts.remove(id);
+    }
+
+    static LayoutDeltaData diff(long id, long revision, LayoutMap from, LayoutMap to) {
+        // @formatter:off
+        List<LayoutSymbolData> added   = new ArrayList<>();
+        List<LayoutSymbolData> removed = new ArrayList<>();
+        List<LayoutSymbolData> changed = new ArrayList<>();
+        // @formatter:on
+
+        for(Map.Entry<Position, TrackLayoutSymbolData> item : to.entrySet()) {
+            TrackLayoutSymbolData prev = from.get(item.getKey());
+            TrackLayoutSymbolData curr = item.getValue();
+            if(prev == null) {
+                added.add(LayoutMap.toSymbolData(item.getKey(), curr));
+            } else if(!isSame(prev, curr)) {
+                changed.add(LayoutMap.toSymbolData(item.getKey(), curr));
+            }
+        }
+        for(Map.Entry<Position, TrackLayoutSymbolData> item : from.entrySet()) {
+            if(!to.containsKey(item.getKey())) {
+                removed.add(LayoutMap.toSymbolData(item.getKey(), item.getValue()));
+            }
+        }
+        return new LayoutDeltaData(id, revision, added, removed, changed);
+    }
+
+    private static boolean isSame(TrackLayoutSymbolData a, TrackLayoutSymbolData b) {
+        return Objects.equals(a.id(), b.id()) && a.symbol().toJson().equals(b.symbol().toJson());
+    }
+
+    private Entry getEntry(long id, Loader loader)
+    throws SQLException {
+        Entry entry = layouts.get(id);
+        if(entry == null) {
+            // Startwert aus der Uhrzeit: Revisionen von vor einem Neustart sind damit unbekannt und nicht mehrdeutig
+            entry = new Entry(new Snapshot(id, System.currentTimeMillis(), loader.load(id)));
+            layouts.put(id, entry);
+        }
+        return entry;
+    }
+}
@@ -31,10 +31,11 @@ import moba.server.messages.messagetypes.MessagingMessage;
 import org.apache.commons.collections4.queue.CircularFifoQueue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-final public class NotificationHandler implements JsonSerializerInterface<CircularFifoQueue<NotificationData>> {
+final public class NotificationHandler implements JsonSerializerInterface<ArrayList<NotificationData>> {
     private final Logger logger;
     private final Dispatcher dispatcher;
     CircularFifoQueue<NotificationData> list;
@@ -70,7 +71,9 @@ final public class NotificationHandler implements JsonSerializerInterface<Circul
     }
 
     @Override
-    public CircularFifoQueue<NotificationData> toJson() throws JsonException, IOException {
-        return list;
+    public synchronized ArrayList<NotificationData> toJson() throws JsonException, IOException {
+        // Kopie, weil die Liste während des Encodings von anderen Threads erweitert werden kann. Nicht als
+        // CircularFifoQueue: deren Konstruktor wirft bei einer leeren Liste (Größe 0) eine IllegalArgumentException.
+        return new ArrayList<>(list);
     }
 }
@@ -0,0 +1,166 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.com;
+
+import moba.server.datatypes.objects.OutboundQueueData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundQueueTest {
+
+    static OutboundQueue queue(int capacity, OutboundQueue.OverflowPolicy policy) {
+        return new OutboundQueue(new OutboundQueue.Settings(capacity, policy));
+    }
+
+    static Frame frame(boolean droppable) {
+        return new Frame(1, 1, "{}", droppable);
+    }
+
+    static List<Frame> drain(OutboundQueue queue) {
+        List<Frame> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        return batch;
+    }
+
+    @Test
+    void offer_full_disconnect_returnsFalse() {
+        OutboundQueue queue = queue(2, OutboundQueue.OverflowPolicy.DISCONNECT);
+        assertTrue(queue.offer(frame(true)));
+        assertTrue(queue.offer(frame(false)));
+
+        assertFalse(queue.offer(frame(false)));
+        assertFalse(queue.offer(frame(true)));
+        assertEquals(new OutboundQueueData(2, 2, 2, 0), queue.getStatistics());
+    }
+
+    @Test
+    void offer_full_dropOldest_replacesOldestDroppable() {
+        OutboundQueue queue = queue(3, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+        Frame first = frame(false);
+        Frame ping = frame(true);
+        Frame last = frame(true);
+        Frame next = frame(false);
+        queue.offer(first);
+        queue.offer(ping);
+        queue.offer(last);
+
+        assertTrue(queue.offer(next));
+        assertEquals(List.of(first, last, next), drain(queue));
+        assertEquals(1, queue.getStatistics().dropped());
+    }
+
+    @Test
+    void offer_full_dropOldest_dropsNewDroppableFrame() {
+        OutboundQueue queue = queue(2, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+        Frame a = frame(false);
+        Frame b = frame(false);
+        queue.offer(a);
+        queue.offer(b);
+
+        assertTrue(queue.offer(frame(true)));
+        assertEquals(List.of(a, b), drain(queue));
+        assertEquals(1, queue.getStatistics().dropped());
+    }
+
+    @Test
+    void offer_full_dropOldest_nothingDroppable_returnsFalse() {
+        OutboundQueue queue = queue(2, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+        queue.offer(frame(false));
+        queue.offer(frame(false));
+
+        assertFalse(queue.offer(frame(false)));
+    }
+
+    @Test
+    void getStatistics_keepsHighWaterMark() {
+        OutboundQueue queue = queue(4, OutboundQueue.OverflowPolicy.DISCONNECT);
+        queue.offer(frame(false));
+        queue.offer(frame(false));
+        queue.offer(frame(false));
+        drain(queue);
+        queue.offer(frame(false));
+
+        assertEquals(new OutboundQueueData(1, 4, 3, 0), queue.getStatistics());
+    }
+
+    @Test
+    void awaitEmpty_framesInFlight_waitsForWritten()
+    throws InterruptedException {
+        OutboundQueue queue = queue(4, OutboundQueue.OverflowPolicy.DISCONNECT);
+        queue.offer(frame(false));
+        queue.publish();
+
+        List<Frame> batch = new ArrayList<>();
+        queue.awaitFrames(batch);
+        assertEquals(1, batch.size());
+
+        // die Frames sind aus der Queue genommen, aber noch nicht geschrieben
+        assertFalse(queue.awaitEmpty(10));
+
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch(InterruptedException e) {
+                return;
+            }
+            queue.written();
+        });
+        writer.start();
+        assertTrue(queue.awaitEmpty(5000));
+        writer.join();
+    }
+
+    @Test
+    void awaitEmpty_nothingQueued_returnsImmediately()
+    throws InterruptedException {
+        assertTrue(queue(4, OutboundQueue.OverflowPolicy.DISCONNECT).awaitEmpty(0));
+    }
+
+    @Test
+    void awaitFrames_waitsForPublish()
+    throws InterruptedException {
+        OutboundQueue queue = queue(4, OutboundQueue.OverflowPolicy.DISCONNECT);
+        Frame frame = frame(false);
+        List<Frame> batch = new ArrayList<>();
+
+        Thread writer = new Thread(() -> {
+            try {
+                queue.awaitFrames(batch);
+            } catch(InterruptedException e) {
+                // Testende
+            }
+        });
+        writer.start();
+
+        queue.offer(frame);
+        writer.join(50);
+        assertTrue(writer.isAlive());
+
+        queue.publish();
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        assertEquals(List.of(frame), batch);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.datatypes.collections;
+
+import moba.server.datatypes.objects.Position;
+import moba.server.datatypes.objects.Symbol;
+import moba.server.datatypes.objects.TrackLayoutSymbolData;
+import moba.server.routing.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutGridTest {
+
+    static final int HORIZONTAL = Direction.LEFT | Direction.RIGHT;
+
+    static LayoutMap layout() {
+        LayoutMap layout = new LayoutMap();
+        layout.put(new Position(3, 5), new TrackLayoutSymbolData(1L, new Symbol(HORIZONTAL)));
+        layout.put(new Position(4, 5), new TrackLayoutSymbolData(2L, new Symbol(HORIZONTAL)));
+        // weit entfernt: eigene Kachel, dazwischen nichts angelegt
+        layout.put(new Position(1000, 700), new TrackLayoutSymbolData(3L, new Symbol(Direction.LEFT)));
+        return layout;
+    }
+
+    @Test
+    void of_layout_returnsSymbolsAndIds() {
+        LayoutGrid grid = LayoutGrid.of(layout());
+
+        assertEquals(3, grid.size());
+        assertEquals(HORIZONTAL, grid.getSymbol(new Position(4, 5)).toJson());
+        assertEquals(2L, grid.getId(new Position(4, 5)));
+        assertEquals(3L, grid.getId(new Position(1000, 700)));
+    }
+
+    @Test
+    void getSymbol_emptyOrOutside_returnsNull() {
+        LayoutGrid grid = LayoutGrid.of(layout());
+
+        assertNull(grid.getSymbol(new Position(5, 5)));
+        assertNull(grid.getSymbol(new Position(500, 300)));
+        assertNull(grid.getSymbol(new Position(0, 0)));
+        assertNull(grid.getSymbol(new Position(2000, 5)));
+    }
+
+    @Test
+    void getSymbol_steppedOutOfRange_returnsNull() {
+        LayoutGrid grid = LayoutGrid.of(layout());
+
+        Position pos = new Position(0, 0);
+        pos.setNewPosition(Direction.LEFT);
+        assertNull(grid.getSymbol(pos));
+    }
+
+    @Test
+    void of_layout_copiesSymbols() {
+        LayoutMap layout = layout();
+        LayoutGrid grid = LayoutGrid.of(layout);
+
+        grid.getSymbol(new Position(3, 5)).removeJunction(Direction.LEFT);
+
+        assertTrue(layout.get(new Position(3, 5)).symbol().isJunctionSet(Direction.LEFT));
+    }
+
+    @Test
+    void of_strayFarAway_allocatesOnlyItsTiles() {
+        // die Ausdehnung allein würde als dichtes Raster mehrere GB an Kacheln belegen
+        LayoutMap layout = layout();
+        layout.put(new Position(2_000_000_000L, 1_500_000_000L), new TrackLayoutSymbolData(4L, new Symbol(HORIZONTAL)));
+        LayoutGrid grid = LayoutGrid.of(layout);
+
+        assertEquals(4L, grid.getId(new Position(2_000_000_000L, 1_500_000_000L)));
+        assertEquals(2L, grid.getId(new Position(4, 5)));
+        assertNull(grid.getSymbol(new Position(1_000_000_000L, 1_000_000_000L)));
+        assertEquals(new Position(2_000_000_000L, 1_500_000_000L), grid.getPositions(Set.of(4L)).get(4L));
+    }
+
+    @Test
+    void of_manyTiles_findsEverySymbol() {
+        LayoutMap layout = new LayoutMap();
+        for(long i = 0; i < 1000; ++i) {
+            layout.put(new Position(i * 64, i * 37), new TrackLayoutSymbolData(i + 1, new Symbol(HORIZONTAL)));
+        }
+        LayoutGrid grid = LayoutGrid.of(layout);
+
+        for(long i = 0; i < 1000; ++i) {
+            assertEquals(i + 1, grid.getId(new Position(i * 64, i * 37)));
+            assertNull(grid.getSymbol(new Position(i * 64 + 1, i * 37)));
+        }
+    }
+
+    @Test
+    void getPositions_givenIds_returnsOnlyThose() {
+        HashMap<Long, Position> positions = LayoutGrid.of(layout()).getPositions(Set.of(1L, 3L, 42L));
+
+        assertEquals(2, positions.size());
+        assertEquals(new Position(3, 5), positions.get(1L));
+        assertEquals(new Position(1000, 700), positions.get(3L));
+    }
+}
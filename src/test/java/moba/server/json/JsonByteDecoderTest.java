@@ -0,0 +1,332 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonByteDecoderTest {
+
+    final JsonByteDecoder decoder = new JsonByteDecoder();
+
+    Decoder getDecoder(String inputString) {
+        byte[] byteArray = inputString.getBytes(StandardCharsets.UTF_8);
+        return () -> decoder.decode(byteArray);
+    }
+
+    interface Decoder {
+        Object decode()
+        throws JsonException, IOException;
+    }
+
+    @Nested
+    class PrimitiveValueTests {
+        @Test
+        void decode_null_returnsNull()
+        throws JsonException, IOException {
+            Object result = getDecoder("null").decode();
+            assertNull(result);
+        }
+
+        @Test
+        void decode_boolean_returnsBoolean()
+        throws JsonException, IOException {
+            assertTrue((Boolean) getDecoder("true").decode());
+            assertFalse((Boolean) getDecoder("false").decode());
+        }
+
+        @Test
+        void decode_integer_returnsLong()
+        throws JsonException, IOException {
+            assertEquals(42L, getDecoder("42").decode());
+            assertEquals(-17L, getDecoder("-17").decode());
+        }
+
+        @Test
+        void decode_decimal_returnsDouble()
+        throws JsonException, IOException {
+            assertEquals(3.14, getDecoder("3.14").decode());
+            assertEquals(-0.001, getDecoder("-0.001").decode());
+        }
+
+        @Test
+        void decode_string_returnsString()
+        throws JsonException, IOException {
+            assertEquals("Hello World", getDecoder("\"Hello World\"").decode());
+            assertEquals("", getDecoder("\"\"").decode());
+        }
+    }
+
+    @Nested
+    class StringTests {
+        @Test
+        void decode_stringWithEscapeSequences_returnsDecodedString()
+        throws JsonException, IOException {
+            assertEquals("Line 1\nLine 2", getDecoder("\"Line 1\\nLine 2\"").decode());
+            assertEquals("Tab\there", getDecoder("\"Tab\\there\"").decode());
+            assertEquals("Quote\"inside", getDecoder("\"Quote\\\"inside\"").decode());
+            assertEquals("Back\\slash", getDecoder("\"Back\\\\slash\"").decode());
+        }
+
+        @Test
+        void decode_unicodeSequences_returnsDecodedString()
+        throws JsonException, IOException {
+            assertEquals("Hello ♥", getDecoder("\"Hello \\u2665\"").decode());
+            assertEquals("←→", getDecoder("\"\\u2190\\u2192\"").decode());
+        }
+    }
+
+    @Nested
+    class ArrayTests {
+        @Test
+        void decode_emptyArray_returnsEmptyList()
+        throws JsonException, IOException {
+            Object result = getDecoder("[]").decode();
+            assertInstanceOf(List.class, result);
+            assertEquals(0, ((List<?>) result).size());
+        }
+
+        @Test
+        void decode_arrayWithPrimitives_returnsList()
+        throws JsonException, IOException {
+            Object result = getDecoder("[1,true,\"text\",null]").decode();
+            assertInstanceOf(List.class, result);
+            List<?> list = (List<?>) result;
+            assertEquals(4, list.size());
+            assertEquals(1L, list.get(0));
+            assertEquals(true, list.get(1));
+            assertEquals("text", list.get(2));
+            assertNull(list.get(3));
+        }
+
+        @Test
+        void decode_nestedArrays_returnsNestedLists()
+        throws JsonException, IOException {
+            Object result = getDecoder("[[1,2],[3,4]]").decode();
+            assertInstanceOf(List.class, result);
+            List<?> outer = (List<?>) result;
+            assertEquals(2, outer.size());
+            assertInstanceOf(List.class, outer.get(0));
+            assertInstanceOf(List.class, outer.get(1));
+        }
+    }
+
+    @Nested
+    class ObjectTests {
+        @Test
+        void decode_emptyObject_returnsEmptyMap()
+        throws JsonException, IOException {
+            Object result = getDecoder("{}").decode();
+            assertInstanceOf(Map.class, result);
+            assertEquals(0, ((Map<?, ?>) result).size());
+        }
+
+        @Test
+        void decode_simpleObject_returnsMap()
+        throws JsonException, IOException {
+            Object result = getDecoder("{\"name\":\"John\",\"age\":30}").decode();
+            assertInstanceOf(Map.class, result);
+            Map<?, ?> map = (Map<?, ?>) result;
+            assertEquals("John", map.get("name"));
+            assertEquals(30L, map.get("age"));
+        }
+
+        @Test
+        void decode_nestedObject_returnsNestedMap()
+        throws JsonException, IOException {
+            Object result = getDecoder("{\"person\":{\"name\":\"John\",\"age\":30}}").decode();
+            assertInstanceOf(Map.class, result);
+            Map<?, ?> outer = (Map<?, ?>) result;
+            assertInstanceOf(Map.class, outer.get("person"));
+            Map<?, ?> person = (Map<?, ?>) outer.get("person");
+            assertEquals("John", person.get("name"));
+            assertEquals(30L, person.get("age"));
+        }
+
+        @Test
+        void decode_objectWithArray_returnsMapWithList()
+        throws JsonException, IOException {
+            Object result = getDecoder("{\"numbers\":[1,2,3]}").decode();
+            assertInstanceOf(Map.class, result);
+            Map<?, ?> map = (Map<?, ?>) result;
+            assertInstanceOf(List.class, map.get("numbers"));
+            List<?> numbers = (List<?>) map.get("numbers");
+            assertEquals(Arrays.asList(1L, 2L, 3L), numbers);
+        }
+
+        @Test
+        void decode_objectWithArray_returnsMapWithList2()
+        throws JsonException, IOException {
+            String json = """
+                {"name":"John","age":30,"hobbies":[{"first":"reading"},{"first":"gaming"}]}
+                """;
+            Object result = getDecoder(json).decode();
+            assertInstanceOf(Map.class, result);
+            Map<?, ?> map = (Map<?, ?>) result;
+            assertEquals("John", map.get("name"));
+            assertEquals(30L, map.get("age"));
+            assertInstanceOf(List.class, map.get("hobbies"));
+            List<?> hobbies = (List<?>) map.get("hobbies");
+        }
+    }
+
+    @Nested
+    class ErrorTests {
+        @Test
+        void decode_invalidJson_throwsJsonException() {
+            assertThrows(JsonException.class, () -> getDecoder("{invalid}").decode());
+            assertThrows(JsonException.class, () -> getDecoder("[1,2,]").decode());
+            assertThrows(JsonException.class, () -> getDecoder("{'single':quotes}").decode());
+        }
+
+        @Test
+        void decode_incompleteJson_throwsJsonException() {
+            assertThrows(IOException.class, () -> getDecoder("{\"name\":").decode());
+            assertThrows(IOException.class, () -> getDecoder("[1,2").decode());
+            assertThrows(IOException.class, () -> getDecoder("\"unclosed").decode());
+        }
+
+        @Test
+        void decode_emptyInput_throwsJsonException() {
+            assertThrows(IOException.class, () -> getDecoder("").decode());
+            assertThrows(JsonException.class, () -> getDecoder("  ").decode());
+        }
+    }
+
+    @Nested
+    class SpecialNumberTests {
+        @Test
+        void decode_scientificNotation_returnsDouble()
+        throws JsonException, IOException {
+            assertEquals(1.23e-4, getDecoder("1.23e-4").decode());
+            assertEquals(1.23E+4, getDecoder("1.23E+4").decode());
+        }
+
+        @Test
+        void decode_largeNumbers_handlesCorrectly()
+        throws JsonException, IOException {
+            assertEquals(Long.MAX_VALUE, getDecoder(String.valueOf(Long.MAX_VALUE)).decode());
+            assertEquals(Double.MAX_VALUE, getDecoder(String.valueOf(Double.MAX_VALUE)).decode());
+        }
+    }
+
+    @Nested
+    class ByteTests {
+        @Test
+        void decode_utf8String_returnsDecodedString()
+        throws JsonException, IOException {
+            assertEquals("Grüße ♥ 😀", getDecoder("\"Grüße ♥ 😀\"").decode());
+            assertEquals("Grüße\n♥", getDecoder("\"Grüße\\n♥\"").decode());
+        }
+
+        @Test
+        void decode_bufferSlice_ignoresRemainingBytes()
+        throws JsonException, IOException {
+            byte[] buffer = "xx{\"id\":7}yyyy".getBytes(StandardCharsets.UTF_8);
+            assertEquals(Map.of("id", 7L), decoder.decode(buffer, 2, 8));
+        }
+
+        @Test
+        void decode_repeatedKeys_returnsSameKeyInstance()
+        throws JsonException, IOException {
+            Map<?, ?> first = (Map<?, ?>) getDecoder("{\"name\":1}").decode();
+            Map<?, ?> second = (Map<?, ?>) getDecoder("{\"name\":2}").decode();
+            assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+        }
+
+        @Test
+        void decode_sameInputAsJsonDecoder_returnsSameResult()
+        throws JsonException, IOException {
+            String json = "{\"a\":[1,-2,3.5,1.23e-4,\"x\\ty\",true,null],\"b\":{\"c\":0x10}}";
+            Object expected = new JsonDecoder(
+                new moba.server.json.stringreader.JsonStringReader(
+                    new moba.server.json.streamreader.JsonStreamReaderBytes(json.getBytes(StandardCharsets.UTF_8))
+                )
+            ).decode();
+            assertEquals(expected, getDecoder(json).decode());
+        }
+    }
+
+    record Item(long id, int count, String name, Boolean active) {
+    }
+
+    record Container(Long id, List<Item> items, Object extra) {
+    }
+
+    enum Color {
+        RED,
+        GREEN
+    }
+
+    record Colored(Color color, double value) {
+    }
+
+    @Nested
+    class TypedTests {
+        Object decode(String json, Class<?> type)
+        throws JsonException, IOException {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            return decoder.decode(bytes, 0, bytes.length, type);
+        }
+
+        @Test
+        void decode_record_bindsComponents()
+        throws JsonException, IOException {
+            Object result = decode(
+                "{\"id\":1,\"items\":[{\"id\":2,\"count\":3,\"name\":\"a\",\"active\":true}],\"extra\":{\"x\":[1]}}",
+                Container.class
+            );
+            Container container = assertInstanceOf(Container.class, result);
+            assertEquals(1L, container.id());
+            assertEquals(List.of(new Item(2, 3, "a", true)), container.items());
+            assertEquals(Map.of("x", List.of(1L)), container.extra());
+        }
+
+        @Test
+        void decode_record_skipsUnknownAndKeepsMissingNull()
+        throws JsonException, IOException {
+            Item item = (Item) decode("{\"unknown\":[1,{}],\"count\":5,\"id\":1}", Item.class);
+            assertEquals(new Item(1, 5, null, null), item);
+        }
+
+        @Test
+        void decode_enumAndDouble_convertsValues()
+        throws JsonException, IOException {
+            assertEquals(new Colored(Color.GREEN, 2.0), decode("{\"color\":\"GREEN\",\"value\":2}", Colored.class));
+        }
+
+        @Test
+        void decode_invalidValues_throwsJsonException() {
+            assertThrows(JsonException.class, () -> decode("{\"count\":5}", Item.class));
+            assertThrows(JsonException.class, () -> decode("{\"id\":\"x\",\"count\":5}", Item.class));
+            assertThrows(JsonException.class, () -> decode("{\"id\":1,\"count\":5000000000}", Item.class));
+            assertThrows(JsonException.class, () -> decode("{\"id\":1,\"id\":2,\"count\":1}", Item.class));
+            assertThrows(JsonException.class, () -> decode("{\"color\":\"BLUE\",\"value\":1}", Colored.class));
+            assertThrows(JsonException.class, () -> decode("[1]", Item.class));
+        }
+    }
+}
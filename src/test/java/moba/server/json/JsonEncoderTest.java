@@ -91,4 +91,42 @@ class JsonEncoderTest {
     throws IOException, JsonException {
         assertEquals("[]", encode(Collections.emptyList()));
     }
-}
\ No newline at end of file
+
+    record Point(long x, long y) {
+    }
+
+    static class Bean {
+        public String getName() {
+            return "name";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+    }
+
+    @Test
+    void testJsonRecord()
+    throws IOException, JsonException {
+        assertEquals("{\"x\":1,\"y\":2}", encode(new Point(1, 2)));
+        // second run uses the cached encoding-plan
+        assertEquals("{\"x\":3,\"y\":4}", encode(new Point(3, 4)));
+    }
+
+    @Test
+    void testJsonBean()
+    throws IOException, JsonException {
+        String json = encode(new Bean());
+        assertTrue(json.contains("\"name\":\"name\""));
+        assertTrue(json.contains("\"active\":true"));
+        assertEquals(json, encode(new Bean()));
+    }
+
+    @Test
+    void testPreEncodedJson_insertedAsIs()
+    throws IOException, JsonException {
+        PreEncodedJson value = new PreEncodedJson(Collections.singletonMap("a", 1));
+        assertEquals("{\"a\":1}", value.getJson());
+        assertEquals("[{\"a\":1},{\"a\":1}]", encode(new Object[]{value, value}));
+    }
+}
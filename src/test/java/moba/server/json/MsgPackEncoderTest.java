@@ -0,0 +1,110 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.json;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import moba.server.json.streamwriter.JsonStreamWriterBytes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MsgPackEncoderTest {
+
+    enum Color {RED}
+
+    record Point(long x, String label) {}
+
+    String encode(Object obj)
+    throws IOException, JsonException {
+        JsonStreamWriterBytes writer = new JsonStreamWriterBytes();
+        new MsgPackEncoder(writer).encode(obj);
+        return HexFormat.of().withUpperCase().formatHex(writer.toByteArray());
+    }
+
+    @Test
+    void testNilAndBoolean()
+    throws IOException, JsonException {
+        assertEquals("C0", encode(null));
+        assertEquals("C3", encode(true));
+        assertEquals("C2", encode(false));
+    }
+
+    @Test
+    void testIntegers_useSmallestFormat()
+    throws IOException, JsonException {
+        assertEquals("00", encode(0));
+        assertEquals("7F", encode(127L));
+        assertEquals("CC80", encode(128));
+        assertEquals("CD0100", encode(256));
+        assertEquals("CE00010000", encode(65536L));
+        assertEquals("CF0000000100000000", encode(0x100000000L));
+        assertEquals("FF", encode(-1));
+        assertEquals("E0", encode(-32L));
+        assertEquals("D0DF", encode(-33));
+        assertEquals("D1FF7F", encode(-129));
+        assertEquals("D2FFFF7FFF", encode(-32769));
+        assertEquals("D38000000000000000", encode(Long.MIN_VALUE));
+    }
+
+    @Test
+    void testFloatingPoint()
+    throws IOException, JsonException {
+        assertEquals("CB3FF8000000000000", encode(1.5));
+        assertEquals("CA3FC00000", encode(1.5f));
+    }
+
+    @Test
+    void testStrings_lengthInUtf8Bytes()
+    throws IOException, JsonException {
+        assertEquals("A0", encode(""));
+        assertEquals("A3616263", encode("abc"));
+        assertEquals("A2C3BC", encode("ü"));
+        assertEquals("A4F09F9A82", encode("🚂"));
+        assertEquals("A13F", encode("\uD83D"));
+        assertEquals("D920" + "61".repeat(32), encode("a".repeat(32)));
+        assertEquals("DA0100" + "61".repeat(256), encode("a".repeat(256)));
+        assertEquals("A3524544", encode(Color.RED));
+    }
+
+    @Test
+    void testArraysAndMaps()
+    throws IOException, JsonException {
+        assertEquals("93010203", encode(List.of(1, 2, 3)));
+        assertEquals("92C0A161", encode(new Object[]{null, "a"}));
+        assertEquals("DC0010" + "C0".repeat(16), encode(new Integer[16]));
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", List.of());
+        assertEquals("82A16101A16290", encode(map));
+    }
+
+    @Test
+    void testRecord_encodedAsMap()
+    throws IOException, JsonException {
+        assertEquals("82A17805A56C6162656CA170", encode(new Point(5, "p")));
+    }
+}
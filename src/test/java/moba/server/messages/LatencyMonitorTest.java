@@ -0,0 +1,86 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import moba.server.datatypes.objects.LatencyData;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyMonitorTest {
+
+    static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void record_aboveSlo_countsViolation() {
+        LatencyMonitor monitor = new LatencyMonitor(10);
+
+        assertFalse(monitor.record(millis(5)));
+        assertFalse(monitor.record(millis(10)));
+        assertTrue(monitor.record(millis(10) + 1));
+        assertTrue(monitor.record(millis(50)));
+
+        LatencyData data = monitor.getStatistics();
+        assertEquals(4, data.count());
+        assertEquals(2, data.violations());
+        assertEquals(10.0, data.sloMillis());
+        assertEquals(50.0, data.maxMillis());
+    }
+
+    @Test
+    void getStatistics_moreThanSampleSize_keepsCountingViolations() {
+        LatencyMonitor monitor = new LatencyMonitor(1);
+
+        monitor.record(millis(100));
+        for(int i = 0; i < 2000; i++) {
+            monitor.record(millis(2));
+        }
+
+        // der Ausreißer ist aus den Samples gefallen, Zähler und Maximum bleiben erhalten
+        LatencyData data = monitor.getStatistics();
+        assertEquals(2001, data.count());
+        assertEquals(2001, data.violations());
+        assertEquals(2.0, data.p99Millis());
+        assertEquals(100.0, data.maxMillis());
+    }
+
+    @Test
+    void getStatistics_percentiles() {
+        LatencyMonitor monitor = new LatencyMonitor(1000);
+        for(int i = 1; i <= 100; i++) {
+            monitor.record(millis(i));
+        }
+
+        LatencyData data = monitor.getStatistics();
+        assertEquals(50.0, data.p50Millis());
+        assertEquals(99.0, data.p99Millis());
+        assertEquals(0, data.violations());
+    }
+
+    @Test
+    void getStatistics_noSamples_isZero() {
+        assertEquals(new LatencyData(0, 0, 5.0, 0, 0, 0), new LatencyMonitor(5).getStatistics());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import moba.server.datatypes.enumerations.NotificationLevel;
+import moba.server.datatypes.enumerations.NotificationType;
+import moba.server.datatypes.objects.NotificationData;
+import moba.server.messages.messagetypes.InternMessage;
+import moba.server.messages.messagetypes.LayoutMessage;
+import moba.server.messages.messagetypes.ServerMessage;
+import moba.server.messages.messagetypes.SystemMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessagePriorityTest {
+
+    static Message removeClient(NotificationLevel level) {
+        return new Message(
+            InternMessage.REMOVE_CLIENT,
+            new NotificationData(level, NotificationType.CLIENT_ERROR, "caption", "message", "test")
+        );
+    }
+
+    @Test
+    void of_removeClientCritical_isSafety() {
+        assertEquals(MessagePriority.SAFETY, removeClient(NotificationLevel.CRITICAL).getPriority());
+    }
+
+    @Test
+    void of_removeClientNotCritical_isBulk() {
+        assertEquals(MessagePriority.BULK, removeClient(NotificationLevel.NOTICE).getPriority());
+        assertEquals(MessagePriority.BULK, removeClient(NotificationLevel.WARNING).getPriority());
+        assertEquals(MessagePriority.BULK, new Message(InternMessage.REMOVE_CLIENT).getPriority());
+    }
+
+    @Test
+    void of_emergencyStop_isSafety() {
+        assertEquals(MessagePriority.SAFETY, new Message(SystemMessage.TRIGGER_EMERGENCY_STOP).getPriority());
+        assertEquals(MessagePriority.SAFETY, new Message(SystemMessage.RELEASE_EMERGENCY_STOP).getPriority());
+        assertEquals(MessagePriority.NORMAL, new Message(SystemMessage.SET_AUTOMATIC_MODE).getPriority());
+    }
+
+    @Test
+    void of_layout_isBulk() {
+        assertEquals(MessagePriority.BULK, new Message(LayoutMessage.GET_LAYOUTS_REQ).getPriority());
+    }
+
+    @Test
+    void of_otherGroup_isNormal() {
+        assertEquals(MessagePriority.NORMAL, new Message(ServerMessage.NEW_CLIENT_STARTED).getPriority());
+    }
+}
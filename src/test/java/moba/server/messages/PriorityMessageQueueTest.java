@@ -0,0 +1,87 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import moba.server.messages.messagetypes.LayoutMessage;
+import moba.server.messages.messagetypes.SystemMessage;
+import moba.server.utilities.logger.MessageLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityMessageQueueTest {
+
+    static PriorityMessageQueue queue() {
+        return new PriorityMessageQueue(new MessageLogger(Logger.getAnonymousLogger()));
+    }
+
+    @Test
+    void take_mixedClasses_servesSafetyBeforeNormalBeforeBulk()
+    throws InterruptedException {
+        PriorityMessageQueue queue = queue();
+        Message bulk = new Message(LayoutMessage.GET_LAYOUTS_REQ);
+        Message normal = new Message(SystemMessage.GET_HARDWARE_STATE);
+        Message safety = new Message(SystemMessage.TRIGGER_EMERGENCY_STOP);
+
+        queue.add(bulk);
+        queue.add(normal);
+        queue.add(safety);
+
+        assertSame(safety, queue.take());
+        assertSame(normal, queue.take());
+        assertSame(bulk, queue.take());
+    }
+
+    @Test
+    void take_sameClass_keepsOrderOfCreation()
+    throws InterruptedException {
+        PriorityMessageQueue queue = queue();
+
+        // innerhalb einer Millisekunde erzeugt, die Reihenfolge ergibt sich allein aus der Sequenz
+        Message[] messages = new Message[100];
+        for(int i = 0; i < messages.length; i++) {
+            messages[i] = new Message(SystemMessage.GET_HARDWARE_STATE);
+        }
+        for(int i = messages.length - 1; i >= 0; i--) {
+            queue.add(messages[i]);
+        }
+        for(Message msg : messages) {
+            assertSame(msg, queue.take());
+        }
+    }
+
+    @Test
+    void take_emergencyStop_triggerAndReleaseKeepOrder()
+    throws InterruptedException {
+        PriorityMessageQueue queue = queue();
+        Message trigger = new Message(SystemMessage.TRIGGER_EMERGENCY_STOP);
+        Message release = new Message(SystemMessage.RELEASE_EMERGENCY_STOP);
+
+        queue.add(new Message(SystemMessage.GET_HARDWARE_STATE));
+        queue.add(release);
+        queue.add(trigger);
+
+        assertSame(trigger, queue.take());
+        assertSame(release, queue.take());
+    }
+}
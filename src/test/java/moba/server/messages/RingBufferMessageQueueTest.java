@@ -0,0 +1,121 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.messages;
+
+import moba.server.messages.messagetypes.SystemMessage;
+import moba.server.utilities.logger.MessageLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferMessageQueueTest {
+
+    static RingBufferMessageQueue queue(int capacity) {
+        return new RingBufferMessageQueue(
+            new MessageLogger(Logger.getAnonymousLogger()),
+            capacity,
+            RingBufferMessageQueue.WaitStrategy.SPIN
+        );
+    }
+
+    static Message message() {
+        return new Message(SystemMessage.GET_HARDWARE_STATE);
+    }
+
+    static void addFromProducer(MessageQueue queue, Message msg)
+    throws InterruptedException {
+        Thread producer = new Thread(() -> queue.add(msg));
+        producer.start();
+        producer.join();
+    }
+
+    @Test
+    void take_sameLane_keepsOrder()
+    throws InterruptedException {
+        RingBufferMessageQueue queue = queue(4);
+        Message[] messages = {message(), message(), message()};
+        for(Message msg : messages) {
+            addFromProducer(queue, msg);
+        }
+        for(Message msg : messages) {
+            assertSame(msg, queue.take());
+        }
+    }
+
+    @Test
+    void add_consumerToFullLane_defersInsteadOfThrowing()
+    throws InterruptedException {
+        RingBufferMessageQueue queue = queue(2);
+        addFromProducer(queue, message());
+        queue.take();
+
+        // der Testthread ist jetzt der Consumer
+        Message[] messages = {message(), message(), message(), message(), message()};
+        for(Message msg : messages) {
+            assertDoesNotThrow(() -> queue.add(msg));
+        }
+        for(Message msg : messages) {
+            assertSame(msg, queue.take());
+        }
+    }
+
+    @Test
+    void take_overflow_isDeliveredBetweenEarlierAndLaterMessages()
+    throws InterruptedException {
+        RingBufferMessageQueue queue = queue(2);
+        addFromProducer(queue, message());
+        queue.take();
+
+        Message a = message();
+        Message b = message();
+        Message c = message();
+        Message d = message();
+
+        queue.add(a);
+        queue.add(b);
+        queue.add(c);
+        assertSame(a, queue.take());
+        addFromProducer(queue, d);
+
+        assertSame(b, queue.take());
+        assertSame(c, queue.take());
+        assertSame(d, queue.take());
+    }
+
+    @Test
+    void clear_discardsOverflow()
+    throws InterruptedException {
+        RingBufferMessageQueue queue = queue(2);
+        addFromProducer(queue, message());
+        queue.take();
+
+        queue.add(message());
+        queue.add(message());
+        queue.add(message());
+        queue.clear();
+
+        Message msg = message();
+        addFromProducer(queue, msg);
+        assertSame(msg, queue.take());
+    }
+}
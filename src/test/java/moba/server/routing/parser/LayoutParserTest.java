@@ -0,0 +1,125 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.parser;
+
+import moba.server.datatypes.collections.BlockContactDataMap;
+import moba.server.datatypes.collections.LayoutMap;
+import moba.server.datatypes.collections.SwitchStateMap;
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.objects.BlockContactData;
+import moba.server.datatypes.objects.Position;
+import moba.server.datatypes.objects.Symbol;
+import moba.server.datatypes.objects.TrackLayoutSymbolData;
+import moba.server.routing.Direction;
+import moba.server.routing.nodes.BlockNode;
+import moba.server.routing.nodes.NodeException;
+import moba.server.routing.typedefs.BlockNodeMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutParserTest {
+
+    static final int HORIZONTAL = Direction.LEFT | Direction.RIGHT;
+
+    final LayoutMap layout = new LayoutMap();
+    final BlockContactDataMap contacts = new BlockContactDataMap();
+
+    long nextId = 1_000_000;
+
+    void put(long x, long y, long id, int symbol) {
+        layout.put(new Position(x, y), new TrackLayoutSymbolData(id, new Symbol(symbol)));
+    }
+
+    void block(long x, long y, long id) {
+        put(x, y, id, HORIZONTAL);
+        contacts.put(id, new BlockContactData(null, null, null));
+    }
+
+    void track(long x, long y) {
+        put(x, y, nextId++, HORIZONTAL);
+    }
+
+    BlockNodeMap parse() {
+        return new LayoutParser(layout, contacts, new SwitchStateMap()).parse().getBlockMap();
+    }
+
+    /**
+     * Prellbock - B1 - 3x Gleis - B2 - Prellbock in Zeile y
+     */
+    void line(long y, long first, long second) {
+        put(0, y, nextId++, Direction.RIGHT);
+        block(1, y, first);
+        track(2, y);
+        track(3, y);
+        track(4, y);
+        block(5, y, second);
+        put(6, y, nextId++, Direction.LEFT);
+    }
+
+    @Test
+    void parse_line_connectsBlocksWithLength() {
+        line(0, 1, 2);
+
+        BlockNodeMap blocks = parse();
+        BlockNode b1 = blocks.get(1L);
+        BlockNode b2 = blocks.get(2L);
+
+        assertSame(b2, b1.getOut());
+        assertSame(b1, b2.getIn());
+        assertEquals(4, b1.getJunctionDistance(SwitchStand.STRAIGHT, b1.getIn()));
+        assertEquals(4, b2.getJunctionDistance(SwitchStand.STRAIGHT, b2.getOut()));
+    }
+
+    @Test
+    void parse_separateParts_parsesAllBlocks() {
+        line(0, 1, 2);
+        line(5, 3, 4);
+
+        BlockNodeMap blocks = parse();
+
+        assertEquals(4, blocks.size());
+        assertSame(blocks.get(4L), blocks.get(3L).getOut());
+    }
+
+    @Test
+    void parse_longChainOfBlocks_doesNotOverflowStack() {
+        int count = 50_000;
+        put(0, 0, nextId++, Direction.RIGHT);
+        for(int i = 1; i <= count; ++i) {
+            block(i, 0, i);
+        }
+        put(count + 1, 0, nextId++, Direction.LEFT);
+
+        BlockNodeMap blocks = parse();
+
+        assertEquals(count, blocks.size());
+        assertSame(blocks.get((long)count), blocks.get(count - 1L).getOut());
+    }
+
+    @Test
+    void parse_trackIntoEmptyPosition_throwsNodeException() {
+        block(1, 0, 1);
+        track(2, 0);
+
+        assertThrows(NodeException.class, this::parse);
+    }
+}
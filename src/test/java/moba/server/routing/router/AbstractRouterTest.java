@@ -0,0 +1,192 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.objects.Train;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.Direction;
+import moba.server.routing.nodes.BlockNode;
+import moba.server.routing.nodes.NodeInterface;
+import moba.server.routing.nodes.SwitchNode;
+import moba.server.routing.router.routinglistitems.Block;
+import moba.server.routing.router.routinglistitems.Route;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.BlockNodeMap;
+import moba.server.routing.typedefs.SwitchStateData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+abstract class AbstractRouterTest {
+
+    static final Train TRAIN = new Train(1, 3, null, null, null, false, false);
+
+    /**
+     *  +-> B1 -> S10 -(gerade)-> B2 -+  (Oval)
+     *  +----------------------------+
+     *               -(abzweig)-> S11 -(gerade)-> B3 -> S12 -(gerade)-> B5 -+
+     *                               -(abzweig)-> B4       ^-(abzweig)------+  (Kehrschleife)
+     *  B9 (nicht angeschlossen)
+     */
+    static BlockNodeMap layout() {
+        BlockNodeMap blocks = new BlockNodeMap();
+        for(long id : new long[]{1, 2, 3, 4, 5, 9}) {
+            blocks.put(id, new BlockNode(id));
+        }
+        SwitchNode s10 = new SwitchNode(10, SwitchStand.STRAIGHT);
+        SwitchNode s11 = new SwitchNode(11, SwitchStand.STRAIGHT);
+        SwitchNode s12 = new SwitchNode(12, SwitchStand.STRAIGHT);
+
+        connect(blocks.get(1L), Direction.RIGHT, s10, Direction.BOTTOM);
+        connect(s10, Direction.TOP, blocks.get(2L), Direction.LEFT);
+        connect(s10, Direction.TOP_RIGHT, s11, Direction.BOTTOM);
+        connect(s11, Direction.TOP, blocks.get(3L), Direction.LEFT);
+        connect(s11, Direction.TOP_RIGHT, blocks.get(4L), Direction.LEFT);
+        connect(blocks.get(3L), Direction.RIGHT, s12, Direction.BOTTOM);
+        connect(s12, Direction.TOP, blocks.get(5L), Direction.LEFT);
+        connect(blocks.get(5L), Direction.RIGHT, s12, Direction.TOP_RIGHT);
+        connect(blocks.get(2L), Direction.RIGHT, blocks.get(1L), Direction.LEFT);
+        return blocks;
+    }
+
+    static void connect(NodeInterface a, int dirA, NodeInterface b, int dirB) {
+        a.setJunctionNode(dirA, b);
+        b.setJunctionNode(dirB, a);
+    }
+
+    /**
+     *  B1 -> S10 -(gerade,   straight)-> B2 -(straight)-> S11 -> B4
+     *            -(abzweig,  bend)    -> B3 -(bend)    ->
+     */
+    static BlockNodeMap diamond(int straight, int bend) {
+        BlockNodeMap blocks = new BlockNodeMap();
+        for(long id : new long[]{1, 2, 3, 4}) {
+            blocks.put(id, new BlockNode(id));
+        }
+        SwitchNode s10 = new SwitchNode(10, SwitchStand.STRAIGHT);
+        SwitchNode s11 = new SwitchNode(11, SwitchStand.STRAIGHT);
+
+        connect(blocks.get(1L), Direction.RIGHT, s10, Direction.BOTTOM, 1);
+        connect(s10, Direction.TOP, blocks.get(2L), Direction.LEFT, straight);
+        connect(s10, Direction.TOP_RIGHT, blocks.get(3L), Direction.LEFT, bend);
+        connect(blocks.get(2L), Direction.RIGHT, s11, Direction.TOP, straight);
+        connect(blocks.get(3L), Direction.RIGHT, s11, Direction.TOP_RIGHT, bend);
+        connect(s11, Direction.BOTTOM, blocks.get(4L), Direction.LEFT, 1);
+        return blocks;
+    }
+
+    static void connect(NodeInterface a, int dirA, NodeInterface b, int dirB, int distance) {
+        a.setJunctionNode(dirA, b, distance);
+        b.setJunctionNode(dirB, a, distance);
+    }
+
+    static ArrayList<RoutingElementInterface> via(long block, SwitchStand stand) {
+        return new ArrayList<>(List.of(
+            new Route(new ArrayList<>(List.of(new SwitchStateData(10, stand)))),
+            new Block(block),
+            new Route(new ArrayList<>(List.of(new SwitchStateData(11, stand)))),
+            new Block(4)
+        ));
+    }
+
+    static TrainJourney journey() {
+        return new TrainJourney(TRAIN, 1, 4);
+    }
+
+    abstract RouterInterface getRouter(BlockNodeMap blocks);
+
+    @Test
+    void getRoute_sameBlock_returnsEmptyList() {
+        assertTrue(getRouter(layout()).getRoute(new TrainJourney(TRAIN, 1, 1)).isEmpty());
+    }
+
+    @Test
+    void getRoute_overSwitches_groupsSwitchesToRoutes() {
+        var route = getRouter(layout()).getRoute(new TrainJourney(TRAIN, 1, 3));
+
+        assertEquals(
+            List.of(
+                new Route(new ArrayList<>(List.of(
+                    new SwitchStateData(10, SwitchStand.BEND),
+                    new SwitchStateData(11, SwitchStand.STRAIGHT)
+                ))),
+                new Block(3)
+            ),
+            route
+        );
+    }
+
+    @Test
+    void getRoute_backwards_usesTrailingSwitches() {
+        var route = getRouter(layout()).getRoute(new TrainJourney(TRAIN, 4, 1));
+
+        assertEquals(
+            List.of(
+                new Route(new ArrayList<>(List.of(
+                    new SwitchStateData(11, SwitchStand.BEND),
+                    new SwitchStateData(10, SwitchStand.BEND)
+                ))),
+                new Block(1)
+            ),
+            route
+        );
+    }
+
+    @Test
+    void getRoute_neighbourBlock_containsDestination() {
+        assertEquals(List.of(new Block(2)), getRouter(layout()).getRoute(new TrainJourney(TRAIN, 1, 2)));
+    }
+
+    @Test
+    void getRoute_equalLength_prefersStraight() {
+        var route = getRouter(layout()).getRoute(new TrainJourney(TRAIN, 1, 5));
+
+        assertEquals(
+            List.of(
+                new Route(new ArrayList<>(List.of(
+                    new SwitchStateData(10, SwitchStand.BEND),
+                    new SwitchStateData(11, SwitchStand.STRAIGHT)
+                ))),
+                new Block(3),
+                new Route(new ArrayList<>(List.of(new SwitchStateData(12, SwitchStand.STRAIGHT)))),
+                new Block(5)
+            ),
+            route
+        );
+    }
+
+    @Test
+    void getRoute_unreachableBlockBehindLoop_terminates() {
+        // eine Tiefensuche ohne Merken der besuchten Knoten kreist hier endlos im Oval
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> getRouter(layout()).getRoute(new TrainJourney(TRAIN, 4, 9))
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> getRouter(layout()).getRoute(new TrainJourney(TRAIN, 42, 1))
+        );
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.enumerations.TrainType;
+import moba.server.datatypes.objects.Train;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.Direction;
+import moba.server.routing.graph.RoutingGraph;
+import moba.server.routing.nodes.BlockNode;
+import moba.server.routing.nodes.SwitchNode;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.BlockNodeMap;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphRouterTest extends AbstractRouterTest {
+
+    @Override
+    RouterInterface getRouter(BlockNodeMap blocks) {
+        return new GraphRouter(RoutingGraph.of(blocks));
+    }
+
+    @Test
+    void getRoute_equalLengths_prefersStraight() {
+        assertEquals(via(2, SwitchStand.STRAIGHT), getRouter(diamond(1, 1)).getRoute(journey()));
+    }
+
+    @Test
+    void getRoute_shorterBend_outweighsPenalty() {
+        // gerade 2 * 10, abzweigend 2 * 3 + 2 * bendPenalty
+        assertEquals(via(3, SwitchStand.BEND), getRouter(diamond(10, 3)).getRoute(journey()));
+    }
+
+    @Test
+    void getRoute_slightlyShorterBend_penaltyWins() {
+        // gerade 2 * 3, abzweigend 2 * 2 + 2 * bendPenalty
+        assertEquals(via(2, SwitchStand.STRAIGHT), getRouter(diamond(3, 2)).getRoute(journey()));
+    }
+
+    @Test
+    void getRoute_occupiedBlock_isAvoided() {
+        GraphRouter router =
+            new GraphRouter(RoutingGraph.of(diamond(1, 1)), trainId -> Set.of(2L), GraphRouter.Costs.DEFAULT);
+        assertEquals(via(3, SwitchStand.BEND), router.getRoute(journey()));
+    }
+
+    @Test
+    void getRoute_onlyRouteOccupied_isStillFound() {
+        GraphRouter router =
+            new GraphRouter(RoutingGraph.of(diamond(1, 1)), trainId -> Set.of(2L, 3L), GraphRouter.Costs.DEFAULT);
+        assertEquals(via(2, SwitchStand.STRAIGHT), router.getRoute(journey()));
+    }
+
+    @Test
+    void getRoute_occupancyFails_throwsIllegalStateException() {
+        GraphRouter router = new GraphRouter(
+            RoutingGraph.of(diamond(1, 1)),
+            trainId -> { throw new SQLException("gone"); },
+            GraphRouter.Costs.DEFAULT
+        );
+        assertThrows(IllegalStateException.class, () -> router.getRoute(journey()));
+    }
+
+    static void assertSameRoutes(BlockNodeMap blocks, Train train, BlockOccupancy occupancy) {
+        RouterInterface graph = new GraphRouter(RoutingGraph.of(blocks), occupancy, GraphRouter.Costs.DEFAULT);
+        RouterInterface live = new WeightedRouter(blocks, occupancy, GraphRouter.Costs.DEFAULT);
+
+        for(long from : blocks.keySet()) {
+            for(long to : blocks.keySet()) {
+                TrainJourney journey = new TrainJourney(train, from, to);
+                ArrayList<RoutingElementInterface> expected;
+                try {
+                    expected = live.getRoute(journey);
+                } catch(IllegalArgumentException e) {
+                    assertThrows(IllegalArgumentException.class, () -> graph.getRoute(journey));
+                    continue;
+                }
+                assertEquals(expected, graph.getRoute(journey), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void getRoute_allPairs_matchesWeightedRouter() {
+        assertSameRoutes(layout(), TRAIN, BlockOccupancy.NONE);
+        assertSameRoutes(diamond(10, 3), TRAIN, BlockOccupancy.NONE);
+        assertSameRoutes(diamond(1, 1), TRAIN, trainId -> Set.of(2L));
+    }
+
+    @Test
+    void getRoute_trainTypeRestriction_matchesWeightedRouter() {
+        // B2 nur für Güterzüge mit Oberleitung, B3 für alle ohne Oberleitung
+        BlockNodeMap blocks = new BlockNodeMap();
+        blocks.put(1L, new BlockNode(1, new HashSet<>(), true));
+        blocks.put(2L, new BlockNode(2, new HashSet<>(Set.of(TrainType.FREIGHT_TRAIN)), true));
+        blocks.put(3L, new BlockNode(3));
+        blocks.put(4L, new BlockNode(4, new HashSet<>(), true));
+        SwitchNode s10 = new SwitchNode(10, SwitchStand.STRAIGHT);
+        SwitchNode s11 = new SwitchNode(11, SwitchStand.STRAIGHT);
+
+        connect(blocks.get(1L), Direction.RIGHT, s10, Direction.BOTTOM);
+        connect(s10, Direction.TOP, blocks.get(2L), Direction.LEFT);
+        connect(s10, Direction.TOP_RIGHT, blocks.get(3L), Direction.LEFT);
+        connect(blocks.get(2L), Direction.RIGHT, s11, Direction.TOP);
+        connect(blocks.get(3L), Direction.RIGHT, s11, Direction.TOP_RIGHT);
+        connect(s11, Direction.BOTTOM, blocks.get(4L), Direction.LEFT);
+
+        for(boolean hasPantograph : new boolean[]{false, true}) {
+            assertSameRoutes(blocks, new Train(1, 3, null, null, null, hasPantograph, false), BlockOccupancy.NONE);
+            for(TrainType type : TrainType.values()) {
+                assertSameRoutes(blocks, new Train(1, 3, null, null, type, hasPantograph, false), BlockOccupancy.NONE);
+            }
+        }
+    }
+
+    @Test
+    void getPathTree_singleSource_matchesGetRoute() {
+        BlockNodeMap blocks = layout();
+        GraphRouter router = new GraphRouter(RoutingGraph.of(blocks));
+
+        for(long from : blocks.keySet()) {
+            GraphRouter.PathTree tree = router.getPathTree(from, TRAIN);
+            for(long to : blocks.keySet()) {
+                if(to == from) {
+                    continue;
+                }
+                ArrayList<RoutingElementInterface> route = router.getRoute(tree, to);
+                if(route == null) {
+                    long target = to;
+                    assertThrows(IllegalArgumentException.class, () -> router.getRoute(new TrainJourney(TRAIN, from, target)));
+                    continue;
+                }
+                assertEquals(router.getRoute(new TrainJourney(TRAIN, from, to)), route);
+            }
+        }
+    }
+
+    @Test
+    void of_layout_numbersAllReachableNodes() {
+        RoutingGraph graph = RoutingGraph.of(layout());
+
+        // 6 Blöcke, 3 Weichen; B9 ist ein isolierter Knoten ohne Bögen
+        assertEquals(9, graph.getNodeCount());
+        assertEquals(RoutingGraph.NONE, graph.getBlockNode(42));
+        assertEquals(9, graph.getNodeId(graph.getBlockNode(9)));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.objects.Train;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.graph.RoutingGraph;
+import moba.server.routing.router.routinglistitems.Route;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteCacheTest {
+
+    static final class CountingRouter implements RouterInterface {
+        private final RouterInterface router = new GraphRouter(RoutingGraph.of(AbstractRouterTest.diamond(1, 1)));
+
+        int calls = 0;
+
+        @Override
+        public ArrayList<RoutingElementInterface> getRoute(TrainJourney journey) {
+            calls++;
+            return router.getRoute(journey);
+        }
+    }
+
+    @Test
+    void getRoute_sameJourney_searchesOnce() {
+        CountingRouter router = new CountingRouter();
+        RouteCache cache = new RouteCache(router);
+
+        assertEquals(AbstractRouterTest.via(2, SwitchStand.STRAIGHT), cache.getRoute(AbstractRouterTest.journey()));
+        assertEquals(AbstractRouterTest.via(2, SwitchStand.STRAIGHT), cache.getRoute(AbstractRouterTest.journey()));
+        assertEquals(1, router.calls);
+    }
+
+    @Test
+    void getRoute_otherProfile_searchesAgain() {
+        CountingRouter router = new CountingRouter();
+        RouteCache cache = new RouteCache(router);
+
+        Train pantograph = new Train(1, 3, null, null, null, true, false);
+
+        cache.getRoute(AbstractRouterTest.journey());
+        assertThrows(IllegalArgumentException.class, () -> cache.getRoute(new TrainJourney(pantograph, 1, 4)));
+        assertEquals(2, router.calls);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidate_clearsCache() {
+        CountingRouter router = new CountingRouter();
+        RouteCache cache = new RouteCache(router);
+
+        cache.getRoute(AbstractRouterTest.journey());
+        cache.invalidate();
+        cache.getRoute(AbstractRouterTest.journey());
+        assertEquals(2, router.calls);
+    }
+
+    @Test
+    void getRoute_modifiedResult_doesNotChangeCache() {
+        RouteCache cache = new RouteCache(new CountingRouter());
+
+        ((Route)cache.getRoute(AbstractRouterTest.journey()).getFirst()).switchingList().clear();
+
+        assertEquals(AbstractRouterTest.via(2, SwitchStand.STRAIGHT), cache.getRoute(AbstractRouterTest.journey()));
+    }
+}
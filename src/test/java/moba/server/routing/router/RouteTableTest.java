@@ -0,0 +1,91 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.router.routinglistitems.Route;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.BlockNodeMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTableTest extends AbstractRouterTest {
+
+    @Override
+    RouterInterface getRouter(BlockNodeMap blocks) {
+        return new RouteTable(blocks, BlockOccupancy.NONE, GraphRouter.Costs.DEFAULT).precompute();
+    }
+
+    @Test
+    void getRoute_allPairs_matchesWeightedRouter() {
+        BlockNodeMap blocks = layout();
+        RouterInterface table = getRouter(blocks);
+        WeightedRouter live = new WeightedRouter(blocks);
+
+        for(long from : blocks.keySet()) {
+            for(long to : blocks.keySet()) {
+                TrainJourney journey = new TrainJourney(TRAIN, from, to);
+                ArrayList<RoutingElementInterface> expected;
+                try {
+                    expected = live.getRoute(journey);
+                } catch(IllegalArgumentException e) {
+                    assertThrows(IllegalArgumentException.class, () -> table.getRoute(journey));
+                    continue;
+                }
+                assertEquals(expected, table.getRoute(journey), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void getRoute_occupiedBlockOnRoute_fallsBackToLiveSearch() {
+        RouteTable table = new RouteTable(
+            diamond(1, 1),
+            trainId -> Set.of(2L),
+            GraphRouter.Costs.DEFAULT
+        ).precompute();
+
+        assertEquals(via(3, SwitchStand.BEND), table.getRoute(journey()));
+    }
+
+    @Test
+    void getRoute_modifiedResult_doesNotChangeTable() {
+        RouterInterface table = getRouter(diamond(1, 1));
+
+        ArrayList<RoutingElementInterface> first = table.getRoute(journey());
+        ((Route)first.getFirst()).switchingList().clear();
+
+        assertEquals(via(2, SwitchStand.STRAIGHT), table.getRoute(journey()));
+    }
+
+    @Test
+    void precompute_sameLockedBlocks_sharesTables() {
+        // ohne Oberleitung: alle Züge ohne Stromabnehmer dürfen überall fahren, alle mit Stromabnehmer nirgends
+        RouteTable table = new RouteTable(layout(), BlockOccupancy.NONE, GraphRouter.Costs.DEFAULT).precompute();
+
+        assertEquals(2, table.getTableCount());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.routing.router;
+
+import moba.server.datatypes.enumerations.SwitchStand;
+import moba.server.datatypes.objects.Train;
+import moba.server.datatypes.objects.TrainJourney;
+import moba.server.routing.nodes.BlockNode;
+import moba.server.routing.nodes.NodeInterface;
+import moba.server.routing.router.routinglistitems.RoutingElementInterface;
+import moba.server.routing.typedefs.BlockNodeMap;
+import moba.server.routing.typedefs.SwitchStateData;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Referenz für die Tests des {@link GraphRouter}: Derselbe Dijkstra mit denselben Kosten und derselben Reihenfolge
+ * bei gleichen Kosten, aber direkt auf den Knoten der BlockNodeMap und ohne Rücksicht auf Laufzeit.
+ */
+final class WeightedRouter implements RouterInterface {
+
+    private final BlockNodeMap      blocks;
+    private final BlockOccupancy    occupancy;
+    private final GraphRouter.Costs costs;
+
+    /**
+     * Ankunft an node, von origin kommend, mit den Gesamtkosten cost. stand ist die Stellung, mit der parent.node
+     * verlassen wurde (null bei Blöcken), seq die Einfügereihenfolge für gleiche Kosten.
+     */
+    private record Step(
+        NodeInterface node,
+        NodeInterface origin,
+        SwitchStand stand,
+        Step parent,
+        long cost,
+        long seq
+    ) {
+    }
+
+    private record Edge(
+        NodeInterface origin,
+        NodeInterface node
+    ) {
+    }
+
+    private static final Comparator<Step> ORDER =
+        Comparator.comparingLong(Step::cost).thenComparingLong(Step::seq);
+
+    WeightedRouter(BlockNodeMap blocks, BlockOccupancy occupancy, GraphRouter.Costs costs) {
+        this.blocks    = blocks;
+        this.occupancy = occupancy;
+        this.costs     = costs;
+    }
+
+    WeightedRouter(BlockNodeMap blocks) {
+        this(blocks, BlockOccupancy.NONE, GraphRouter.Costs.DEFAULT);
+    }
+
+    @Override
+    public ArrayList<RoutingElementInterface> getRoute(TrainJourney journey) {
+        long fromBlock = journey.departureBlockId();
+        long toBlock = journey.destinationBlockId();
+
+        BlockNode block = blocks.get(fromBlock);
+
+        if(block == null) {
+            throw new IllegalArgumentException("start-block <" + fromBlock + "> not found");
+        }
+
+        if(toBlock == fromBlock) {
+            // Zug befindet sich bereits in diesem Block.
+            return new ArrayList<>();
+        }
+
+        Set<Long> occupied = getOccupiedBlocks(journey.train().trainId());
+
+        Step step = new Search(occupied).run(block, journey.train(), reached -> reached.node().getId() == toBlock);
+
+        if(step == null) {
+            throw new IllegalArgumentException("no route found from <" + fromBlock + "> to <" + toBlock + ">");
+        }
+        return RouterInterface.toRoutingList(getPath(step));
+    }
+
+    private Set<Long> getOccupiedBlocks(long trainId) {
+        try {
+            return occupancy.getOccupiedBlocks(trainId);
+        } catch(SQLException e) {
+            throw new IllegalStateException("unable to fetch occupied blocks", e);
+        }
+    }
+
+    private final class Search {
+        private final PriorityQueue<Step> queue = new PriorityQueue<>(ORDER);
+        private final Map<Edge, Long> best = new HashMap<>();
+        private final Set<Edge> settled = new HashSet<>();
+        private final Set<Long> occupied;
+
+        private long seq = 0;
+
+        private Search(Set<Long> occupied) {
+            this.occupied = occupied;
+        }
+
+        /**
+         * Sucht vom Startblock aus, bis target für einen erreichten Knoten true liefert. Da die Knoten in der
+         * Reihenfolge ihrer Kosten erreicht werden, ist der erste Treffer der günstigste.
+         */
+        private Step run(BlockNode block, Train train, Predicate<Step> target) {
+            // beide Seiten, die Fahrtrichtung (train.noDirectionalControl()) wird wie im GraphRouter nicht berücksichtigt
+            offer(block.getIn(), block, null, null);
+            offer(block.getOut(), block, null, null);
+
+            Step step;
+            while((step = queue.poll()) != null) {
+                NodeInterface next = step.node();
+
+                if(next == block || !next.trainAllowed(train)) {
+                    continue;
+                }
+
+                Edge edge = new Edge(step.origin(), next);
+                if(best.getOrDefault(edge, Long.MAX_VALUE) < step.cost() || !settled.add(edge)) {
+                    continue;
+                }
+
+                if(target.test(step)) {
+                    return step;
+                }
+
+                if(next instanceof BlockNode) {
+                    offer(next.getJunctionNode(SwitchStand.STRAIGHT, step.origin()), next, null, step);
+                    continue;
+                }
+                offer(next.getJunctionNode(SwitchStand.STRAIGHT, step.origin()), next, SwitchStand.STRAIGHT, step);
+                offer(next.getJunctionNode(SwitchStand.BEND, step.origin()), next, SwitchStand.BEND, step);
+            }
+            return null;
+        }
+
+        /**
+         * Stellt den Abschnitt von origin nach node in die Warteschlange, sofern er günstiger als alle bisher
+         * gefundenen ist.
+         */
+        private void offer(NodeInterface node, NodeInterface origin, SwitchStand stand, Step parent) {
+            if(node == null) {
+                return;
+            }
+
+            long cost;
+
+            if(parent == null) {
+                // origin ist der Startblock, dieser wird zur jeweils anderen Seite hin verlassen
+                BlockNode start = (BlockNode)origin;
+                cost = start.getJunctionDistance(SwitchStand.STRAIGHT, node == start.getIn() ? start.getOut() : start.getIn());
+            } else {
+                cost = parent.cost() + origin.getJunctionDistance(stand == null ? SwitchStand.STRAIGHT : stand, parent.origin());
+            }
+
+            if(stand == SwitchStand.BEND) {
+                cost += costs.bendPenalty();
+            }
+            if(node instanceof BlockNode && occupied.contains(node.getId())) {
+                cost += costs.occupiedPenalty();
+            }
+
+            Edge edge = new Edge(origin, node);
+            if(best.getOrDefault(edge, Long.MAX_VALUE) <= cost) {
+                return;
+            }
+            best.put(edge, cost);
+            queue.add(new Step(node, origin, stand, parent, cost, seq++));
+        }
+    }
+
+    /**
+     * Weg vom ersten Knoten nach dem Startblock bis zum Zielblock, jeweils mit der Stellung, mit der eine Weiche
+     * verlassen wird.
+     */
+    private static ArrayList<SwitchStateData> getPath(Step last) {
+        ArrayList<SwitchStateData> path = new ArrayList<>();
+        path.add(new SwitchStateData(last.node().getId(), null));
+
+        for(Step step = last; step.parent() != null; step = step.parent()) {
+            path.add(new SwitchStateData(step.parent().node().getId(), step.stand()));
+        }
+        return new ArrayList<>(path.reversed());
+    }
+}
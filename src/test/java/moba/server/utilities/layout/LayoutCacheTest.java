@@ -0,0 +1,102 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.utilities.layout;
+
+import moba.server.datatypes.collections.LayoutMap;
+import moba.server.datatypes.objects.LayoutDeltaData;
+import moba.server.datatypes.objects.LayoutSymbolData;
+import moba.server.datatypes.objects.Position;
+import moba.server.datatypes.objects.Symbol;
+import moba.server.datatypes.objects.TrackLayoutSymbolData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutCacheTest {
+
+    LayoutMap layout(Object... items) {
+        LayoutMap map = new LayoutMap();
+        for(int i = 0; i < items.length; i += 4) {
+            map.put(
+                new Position((long)items[i], (long)items[i + 1]),
+                new TrackLayoutSymbolData((Long)items[i + 2], new Symbol((int)items[i + 3]))
+            );
+        }
+        return map;
+    }
+
+    @Test
+    void diff_unchangedLayout_isEmpty() {
+        LayoutMap from = layout(1L, 1L, 10L, 17);
+        LayoutDeltaData delta = LayoutCache.diff(5, 8, from, layout(1L, 1L, 10L, 17));
+
+        assertEquals(5, delta.id());
+        assertEquals(8, delta.revision());
+        assertTrue(delta.added().isEmpty());
+        assertTrue(delta.removed().isEmpty());
+        assertTrue(delta.changed().isEmpty());
+    }
+
+    @Test
+    void diff_reportsAddedRemovedAndChangedSymbols() {
+        LayoutMap from = layout(1L, 1L, 10L, 17, 2L, 1L, 11L, 17, 3L, 1L, 12L, 17);
+        LayoutMap to = layout(1L, 1L, 10L, 17, 2L, 1L, 11L, 68, 4L, 1L, 13L, 17);
+
+        LayoutDeltaData delta = LayoutCache.diff(1, 2, from, to);
+
+        assertEquals(List.of(new LayoutSymbolData(13L, 4, 1, 17)), delta.added());
+        assertEquals(List.of(new LayoutSymbolData(12L, 3, 1, 17)), delta.removed());
+        assertEquals(List.of(new LayoutSymbolData(11L, 2, 1, 68)), delta.changed());
+    }
+
+    @Test
+    void toJson_encodesSymbolsAsList() {
+        assertEquals(List.of(new LayoutSymbolData(null, 0, 2, 17)), layout(0L, 2L, null, 17).toJson());
+    }
+
+    @Test
+    void append_countsRevisionsAndKeepsDeltas()
+    throws Exception {
+        LayoutCache cache = new LayoutCache();
+        LayoutCache.Snapshot first = cache.get(3, id -> layout(1L, 1L, 10L, 17));
+
+        LayoutDeltaData delta = cache.append(3, layout(1L, 1L, 10L, 17, 2L, 1L, 11L, 17));
+
+        assertEquals(first.revision() + 1, delta.revision());
+        assertEquals(delta.revision(), cache.get(3, id -> fail("cached")).revision());
+        assertEquals(List.of(delta), cache.getChangesSince(3, first.revision(), id -> fail("cached")));
+        assertEquals(List.of(), cache.getChangesSince(3, delta.revision(), id -> fail("cached")));
+        assertNull(cache.getChangesSince(3, first.revision() - 1, id -> fail("cached")));
+    }
+
+    @Test
+    void remove_invalidatesLayout()
+    throws Exception {
+        LayoutCache cache = new LayoutCache();
+        cache.get(3, id -> layout());
+        cache.remove(3);
+
+        assertThrows(IllegalStateException.class, () -> cache.append(3, layout()));
+        assertEquals(1, cache.get(3, id -> layout(1L, 1L, 10L, 17)).symbols().size());
+    }
+}
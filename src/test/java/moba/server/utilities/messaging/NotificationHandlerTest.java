@@ -0,0 +1,68 @@
+/*
+ *  Project:    moba-server
+ *
+ *  Copyright (C) 2026 Stefan Paproth <pappi-@gmx.de>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/agpl.txt>.
+ *
+ */
+
+package moba.server.utilities.messaging;
+
+import moba.server.datatypes.enumerations.NotificationLevel;
+import moba.server.datatypes.enumerations.NotificationType;
+import moba.server.datatypes.objects.NotificationData;
+import moba.server.json.JsonEncoder;
+import moba.server.json.JsonException;
+import moba.server.json.streamwriter.JsonStreamWriterStringBuilder;
+import org.apache.commons.collections4.queue.CircularFifoQueue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationHandlerTest {
+
+    static String encode(Object obj)
+    throws IOException, JsonException {
+        StringBuilder sb = new StringBuilder();
+        new JsonEncoder(new JsonStreamWriterStringBuilder(sb)).encode(obj);
+        return sb.toString();
+    }
+
+    static NotificationHandler handler(CircularFifoQueue<NotificationData> list) {
+        return new NotificationHandler(Logger.getAnonymousLogger(), null, list);
+    }
+
+    @Test
+    void toJson_emptyList_encodesEmptyArray()
+    throws IOException, JsonException {
+        assertEquals("[]", encode(handler(new CircularFifoQueue<>(10))));
+    }
+
+    @Test
+    void toJson_returnsCopy()
+    throws IOException, JsonException {
+        CircularFifoQueue<NotificationData> list = new CircularFifoQueue<>(10);
+        list.add(new NotificationData(NotificationLevel.NOTICE, NotificationType.SERVER_NOTICE, "caption", "message", "test"));
+
+        NotificationHandler handler = handler(list);
+        var copy = handler.toJson();
+        list.clear();
+
+        assertEquals(1, copy.size());
+    }
+}